@@ -37,6 +37,9 @@ import java.net.InetSocketAddress;
  * <p>
  * This event allows you to modify/obtain the MOTD, maximum player count, and current number of players online,
  * Geyser will reply to the client with what was given.
+ * <p>
+ * Without listeners, Geyser reuses the same reply for every client. While this event has listeners, the reply is
+ * built again for every ping, so it can differ depending on {@link #address()}.
  */
 public interface GeyserBedrockPingEvent extends Event {
 
@@ -146,6 +146,10 @@ public class GeyserBungeeInjector extends GeyserInjector implements Listener {
                             ch.pipeline().addAfter(PipelineUtils.PACKET_ENCODER, "geyser-compression-disabler",
                                     new GeyserBungeeCompressionDisabler());
                         }
+
+                        if (framingDisabled) {
+                            disableFraming(ch.pipeline(), PipelineUtils.FRAME_DECODER, PipelineUtils.FRAME_PREPENDER);
+                        }
                     }
                 })
                 .childAttr(listener, listenerInfo)
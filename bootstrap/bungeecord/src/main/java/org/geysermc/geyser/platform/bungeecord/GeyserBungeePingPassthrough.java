@@ -51,6 +51,11 @@ public class GeyserBungeePingPassthrough implements IGeyserPingPassthrough, List
 
     @Override
     public GeyserPingInfo getPingInformation(InetSocketAddress inetSocketAddress) {
+        return getPingInformationAsync(inetSocketAddress).join();
+    }
+
+    @Override
+    public CompletableFuture<GeyserPingInfo> getPingInformationAsync(InetSocketAddress inetSocketAddress) {
         CompletableFuture<ProxyPingEvent> future = new CompletableFuture<>();
         proxyServer.getPluginManager().callEvent(new ProxyPingEvent(new GeyserPendingConnection(inetSocketAddress), getPingInfo(), (event, throwable) -> {
             if (throwable != null) {
@@ -59,13 +64,14 @@ public class GeyserBungeePingPassthrough implements IGeyserPingPassthrough, List
                 future.complete(event);
             }
         }));
-        ProxyPingEvent event = future.join();
-        ServerPing response = event.getResponse();
-        return new GeyserPingInfo(
-                response.getDescriptionComponent().toLegacyText(),
-                response.getPlayers().getMax(),
-                response.getPlayers().getOnline()
-        );
+        return future.thenApply(event -> {
+            ServerPing response = event.getResponse();
+            return new GeyserPingInfo(
+                    response.getDescriptionComponent().toLegacyText(),
+                    response.getPlayers().getMax(),
+                    response.getPlayers().getOnline()
+            );
+        });
     }
 
     // This is static so pending connection can use it
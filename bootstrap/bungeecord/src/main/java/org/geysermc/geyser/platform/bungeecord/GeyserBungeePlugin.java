@@ -40,6 +40,7 @@ import org.geysermc.geyser.api.util.PlatformType;
 import org.geysermc.geyser.command.GeyserCommandManager;
 import org.geysermc.geyser.configuration.GeyserConfiguration;
 import org.geysermc.geyser.dump.BootstrapDumpInfo;
+import org.geysermc.geyser.ping.CachedPingPassthrough;
 import org.geysermc.geyser.ping.GeyserLegacyPingPassthrough;
 import org.geysermc.geyser.ping.IGeyserPingPassthrough;
 import org.geysermc.geyser.platform.bungeecord.command.GeyserBungeeCommandExecutor;
@@ -173,7 +174,7 @@ public class GeyserBungeePlugin extends Plugin implements GeyserBootstrap {
         if (geyserConfig.isLegacyPingPassthrough()) {
             this.geyserBungeePingPassthrough = GeyserLegacyPingPassthrough.init(geyser);
         } else {
-            this.geyserBungeePingPassthrough = new GeyserBungeePingPassthrough(getProxy());
+            this.geyserBungeePingPassthrough = CachedPingPassthrough.wrap(geyser, new GeyserBungeePingPassthrough(getProxy()));
         }
 
         // No need to re-register commands or re-init injector when reloading
@@ -257,6 +258,11 @@ public class GeyserBungeePlugin extends Plugin implements GeyserBootstrap {
         return this.geyserInjector.getServerSocketAddress();
     }
 
+    @Override
+    public boolean isDirectConnectionFramingDisabled() {
+        return this.geyserInjector.isFramingDisabled();
+    }
+
     @NonNull
     @Override
     public String getServerBindAddress() {
@@ -47,6 +47,7 @@ import org.geysermc.geyser.command.GeyserCommandManager;
 import org.geysermc.geyser.configuration.GeyserConfiguration;
 import org.geysermc.geyser.dump.BootstrapDumpInfo;
 import org.geysermc.geyser.level.WorldManager;
+import org.geysermc.geyser.ping.CachedPingPassthrough;
 import org.geysermc.geyser.ping.GeyserLegacyPingPassthrough;
 import org.geysermc.geyser.ping.IGeyserPingPassthrough;
 import org.geysermc.geyser.platform.mod.command.GeyserModCommandExecutor;
@@ -114,7 +115,7 @@ public abstract class GeyserModBootstrap implements GeyserBootstrap {
         if (geyserConfig.isLegacyPingPassthrough()) {
             this.geyserPingPassthrough = GeyserLegacyPingPassthrough.init(geyser);
         } else {
-            this.geyserPingPassthrough = new ModPingPassthrough(server, geyserLogger);
+            this.geyserPingPassthrough = CachedPingPassthrough.wrap(geyser, new ModPingPassthrough(server, geyserLogger));
         }
 
         // No need to re-register commands, or try to re-inject
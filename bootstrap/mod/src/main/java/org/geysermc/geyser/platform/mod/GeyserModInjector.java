@@ -96,6 +96,10 @@ public class GeyserModInjector extends GeyserInjector {
                         if (bootstrap.getGeyserConfig().isDisableCompression()) {
                             ch.pipeline().addAfter("encoder", "geyser-compression-disabler", new GeyserModCompressionDisabler());
                         }
+
+                        if (framingDisabled) {
+                            disableFraming(ch.pipeline(), "splitter", "prepender");
+                        }
                     }
                 })
                 // Set to MAX_PRIORITY as MultithreadEventLoopGroup#newDefaultThreadFactory which DefaultEventLoopGroup implements does by default
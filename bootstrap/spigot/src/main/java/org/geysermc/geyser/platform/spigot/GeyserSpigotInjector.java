@@ -106,6 +106,11 @@ public class GeyserSpigotInjector extends GeyserInjector {
             throw new RuntimeException("Unable to find listening channel!");
         }
 
+        if (framingDisabled && !GeyserSpigotCompressionDisabler.ENABLED) {
+            // Compression would be enabled on the server end only
+            throw new RuntimeException("direct-connection-passthrough requires the compression disabler to work!");
+        }
+
         // Making this a function prevents childHandler from being treated as a non-final variable
         ChannelInitializer<Channel> childHandler = getChildHandler(bootstrap, listeningChannel);
         // This method is what initializes the connection in Java Edition, after Netty is all set.
@@ -122,6 +127,10 @@ public class GeyserSpigotInjector extends GeyserInjector {
                         if (bootstrap.getGeyserConfig().isDisableCompression() && GeyserSpigotCompressionDisabler.ENABLED) {
                             ch.pipeline().addAfter("encoder", "geyser-compression-disabler", new GeyserSpigotCompressionDisabler());
                         }
+
+                        if (framingDisabled) {
+                            disableFraming(ch.pipeline(), "splitter", "prepender");
+                        }
                     }
                 })
                 // Set to MAX_PRIORITY as MultithreadEventLoopGroup#newDefaultThreadFactory which DefaultEventLoopGroup implements does by default
@@ -175,7 +184,8 @@ public class GeyserSpigotInjector extends GeyserInjector {
         MinecraftProtocol protocol = new MinecraftProtocol();
         LocalSession session = new LocalSession(bootstrap.getGeyserConfig().getRemote().address(),
                 bootstrap.getGeyserConfig().getRemote().port(), this.serverSocketAddress,
-                InetAddress.getLoopbackAddress().getHostAddress(), protocol, protocol.createHelper());
+                InetAddress.getLoopbackAddress().getHostAddress(), protocol, protocol.createHelper(),
+                !framingDisabled);
         session.connect();
     }
 
@@ -55,6 +55,7 @@ import org.geysermc.geyser.configuration.GeyserConfiguration;
 import org.geysermc.geyser.dump.BootstrapDumpInfo;
 import org.geysermc.geyser.level.WorldManager;
 import org.geysermc.geyser.network.GameProtocol;
+import org.geysermc.geyser.ping.CachedPingPassthrough;
 import org.geysermc.geyser.ping.GeyserLegacyPingPassthrough;
 import org.geysermc.geyser.ping.IGeyserPingPassthrough;
 import org.geysermc.geyser.platform.spigot.command.GeyserBrigadierSupport;
@@ -217,9 +218,9 @@ public class GeyserSpigotPlugin extends JavaPlugin implements GeyserBootstrap {
             this.geyserSpigotPingPassthrough = GeyserLegacyPingPassthrough.init(geyser);
         } else {
             if (ReflectedNames.checkPaperPingEvent()) {
-                this.geyserSpigotPingPassthrough = new GeyserPaperPingPassthrough(geyserLogger);
+                this.geyserSpigotPingPassthrough = CachedPingPassthrough.wrap(geyser, new GeyserPaperPingPassthrough(geyserLogger));
             } else if (ReflectedNames.newSpigotPingConstructorExists()) {
-                this.geyserSpigotPingPassthrough = new GeyserSpigotPingPassthrough(geyserLogger);
+                this.geyserSpigotPingPassthrough = CachedPingPassthrough.wrap(geyser, new GeyserSpigotPingPassthrough(geyserLogger));
             } else {
                 // Can't enable one of the other options
                 this.geyserSpigotPingPassthrough = GeyserLegacyPingPassthrough.init(geyser);
@@ -412,6 +413,11 @@ public class GeyserSpigotPlugin extends JavaPlugin implements GeyserBootstrap {
         return this.geyserInjector.getServerSocketAddress();
     }
 
+    @Override
+    public boolean isDirectConnectionFramingDisabled() {
+        return this.geyserInjector.isFramingDisabled();
+    }
+
     /**
      * @return the server version before ViaVersion finishes initializing
      */
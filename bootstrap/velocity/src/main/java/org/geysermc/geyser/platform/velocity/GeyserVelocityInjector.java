@@ -69,6 +69,11 @@ public class GeyserVelocityInjector extends GeyserInjector {
         workerGroupField.setAccessible(true);
         EventLoopGroup workerGroup = (EventLoopGroup) workerGroupField.get(connectionManager);
 
+        if (framingDisabled && !GeyserVelocityCompressionDisabler.ENABLED) {
+            // Velocity writes the length prefix in its compression handler
+            throw new RuntimeException("direct-connection-passthrough requires the compression disabler to work!");
+        }
+
         // This method is what initializes the connection in Java Edition, after Netty is all set.
         Method initChannel = ChannelInitializer.class.getDeclaredMethod("initChannel", Channel.class);
         initChannel.setAccessible(true);
@@ -84,6 +89,10 @@ public class GeyserVelocityInjector extends GeyserInjector {
                             ch.pipeline().addAfter("minecraft-encoder", "geyser-compression-disabler",
                                     new GeyserVelocityCompressionDisabler());
                         }
+
+                        if (framingDisabled) {
+                            disableFraming(ch.pipeline(), "frame-decoder", "frame-encoder");
+                        }
                     }
                 })
                 .group(bossGroup, workerGroup) // Cannot be DefaultEventLoopGroup
@@ -37,6 +37,7 @@ import org.geysermc.geyser.ping.IGeyserPingPassthrough;
 
 import java.net.InetSocketAddress;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 
 @AllArgsConstructor
@@ -46,19 +47,22 @@ public class GeyserVelocityPingPassthrough implements IGeyserPingPassthrough {
 
     @Override
     public GeyserPingInfo getPingInformation(InetSocketAddress inetSocketAddress) {
-        ProxyPingEvent event;
         try {
-            event = server.getEventManager().fire(new ProxyPingEvent(new GeyserInboundConnection(inetSocketAddress), ServerPing.builder()
-                    .description(server.getConfiguration().getMotd()).onlinePlayers(server.getPlayerCount())
-                    .maximumPlayers(server.getConfiguration().getShowMaxPlayers()).build())).get();
+            return getPingInformationAsync(inetSocketAddress).get();
         } catch (ExecutionException | InterruptedException e) {
             throw new RuntimeException(e);
         }
-        return new GeyserPingInfo(
+    }
+
+    @Override
+    public CompletableFuture<GeyserPingInfo> getPingInformationAsync(InetSocketAddress inetSocketAddress) {
+        return server.getEventManager().fire(new ProxyPingEvent(new GeyserInboundConnection(inetSocketAddress), ServerPing.builder()
+                .description(server.getConfiguration().getMotd()).onlinePlayers(server.getPlayerCount())
+                .maximumPlayers(server.getConfiguration().getShowMaxPlayers()).build())).thenApply(event -> new GeyserPingInfo(
                 LegacyComponentSerializer.legacy('§').serialize(event.getPing().getDescriptionComponent()),
                 event.getPing().getPlayers().map(ServerPing.Players::getMax).orElse(1),
                 event.getPing().getPlayers().map(ServerPing.Players::getOnline).orElse(0)
-        );
+        ));
     }
 
     private static class GeyserInboundConnection implements InboundConnection {
@@ -47,6 +47,7 @@ import org.geysermc.geyser.command.GeyserCommandManager;
 import org.geysermc.geyser.configuration.GeyserConfiguration;
 import org.geysermc.geyser.dump.BootstrapDumpInfo;
 import org.geysermc.geyser.network.GameProtocol;
+import org.geysermc.geyser.ping.CachedPingPassthrough;
 import org.geysermc.geyser.ping.GeyserLegacyPingPassthrough;
 import org.geysermc.geyser.ping.IGeyserPingPassthrough;
 import org.geysermc.geyser.platform.velocity.command.GeyserVelocityCommandExecutor;
@@ -126,7 +127,7 @@ public class GeyserVelocityPlugin implements GeyserBootstrap {
         if (geyserConfig.isLegacyPingPassthrough()) {
             this.geyserPingPassthrough = GeyserLegacyPingPassthrough.init(geyser);
         } else {
-            this.geyserPingPassthrough = new GeyserVelocityPingPassthrough(proxyServer);
+            this.geyserPingPassthrough = CachedPingPassthrough.wrap(geyser, new GeyserVelocityPingPassthrough(proxyServer));
         }
 
         // No need to re-register commands when reloading
@@ -218,6 +219,11 @@ public class GeyserVelocityPlugin implements GeyserBootstrap {
         return this.geyserInjector.getServerSocketAddress();
     }
 
+    @Override
+    public boolean isDirectConnectionFramingDisabled() {
+        return this.geyserInjector.isFramingDisabled();
+    }
+
     @NonNull
     @Override
     public String getServerBindAddress() {
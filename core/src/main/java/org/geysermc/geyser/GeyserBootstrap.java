@@ -145,6 +145,13 @@ public interface GeyserBootstrap {
         return null;
     }
 
+    /**
+     * @return whether packets sent to {@link #getSocketAddress()} must skip the length prefix
+     */
+    default boolean isDirectConnectionFramingDisabled() {
+        return false;
+    }
+
     default Path getLogsPath() {
         return Paths.get("logs/latest.log");
     }
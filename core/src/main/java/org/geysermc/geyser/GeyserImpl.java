@@ -70,10 +70,14 @@ import org.geysermc.geyser.event.GeyserEventBus;
 import org.geysermc.geyser.extension.GeyserExtensionManager;
 import org.geysermc.geyser.impl.MinecraftVersionImpl;
 import org.geysermc.geyser.level.WorldManager;
+import org.geysermc.geyser.level.chunk.EncodedChunkCache;
+import org.geysermc.geyser.level.chunk.SharedChunkSections;
 import org.geysermc.geyser.network.GameProtocol;
+import org.geysermc.geyser.network.LoginVerificationPool;
 import org.geysermc.geyser.network.netty.GeyserServer;
 import org.geysermc.geyser.registry.BlockRegistries;
 import org.geysermc.geyser.registry.Registries;
+import org.geysermc.geyser.registry.loader.ResourcePackLoader;
 import org.geysermc.geyser.registry.provider.ProviderSupplier;
 import org.geysermc.geyser.scoreboard.ScoreboardUpdater;
 import org.geysermc.geyser.session.GeyserSession;
@@ -97,10 +101,14 @@ import java.nio.file.Path;
 import java.security.Key;
 import java.text.DecimalFormat;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -147,6 +155,22 @@ public class GeyserImpl implements GeyserApi {
     private volatile boolean shuttingDown = false;
 
     private ScheduledExecutorService scheduledThread;
+    /**
+     * Shared executor for encoding chunks outside of player event loops. Null if disabled in the config.
+     */
+    private @Nullable ExecutorService chunkEncodingExecutor;
+    /**
+     * Shared threads for verifying Bedrock logins outside of network threads. Null if disabled in the config.
+     */
+    private @Nullable LoginVerificationPool loginVerificationPool;
+    /**
+     * Translated chunks shared between all sessions. Null if disabled in the config.
+     */
+    private @Nullable EncodedChunkCache encodedChunkCache;
+    /**
+     * Cached chunk sections shared between sessions that received the same chunk. Null if disabled in the config.
+     */
+    private @Nullable SharedChunkSections sharedChunkSections;
 
     private GeyserServer geyserServer;
     private final PlatformType platformType;
@@ -265,11 +289,29 @@ public class GeyserImpl implements GeyserApi {
         GeyserLogger logger = bootstrap.getGeyserLogger();
         GeyserConfiguration config = bootstrap.getGeyserConfig();
 
+        int chunkEncodingThreads = config.getChunkEncodingThreads();
+        if (chunkEncodingThreads > 0) {
+            // The queue is bounded; once it is full, chunks are encoded on the player's own event loop instead
+            this.chunkEncodingExecutor = new ThreadPoolExecutor(chunkEncodingThreads, chunkEncodingThreads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(chunkEncodingThreads * 64), new DefaultThreadFactory("Geyser Chunk Encoding Thread", true));
+        } else {
+            this.chunkEncodingExecutor = null;
+        }
+
+        int loginVerificationThreads = config.getLoginVerificationThreads();
+        this.loginVerificationPool = loginVerificationThreads > 0 ? new LoginVerificationPool(loginVerificationThreads,
+                config.getLoginVerificationMaxPerAddress()) : null;
+
+        int sharedChunkCacheSize = config.getSharedChunkCacheSize();
+        this.encodedChunkCache = sharedChunkCacheSize > 0 ? new EncodedChunkCache(sharedChunkCacheSize * 1024L * 1024L) : null;
+        this.sharedChunkSections = config.isShareCachedChunks() ? new SharedChunkSections() : null;
+
         ScoreboardUpdater.init();
 
         SkinProvider.registerCacheImageTask(this);
 
         Registries.RESOURCE_PACKS.load();
+        ResourcePackLoader.registerChangeCheckTask(this);
 
         String geyserUdpPort = System.getProperty("geyserUdpPort", "");
         String pluginUdpPort = geyserUdpPort.isEmpty() ? System.getProperty("pluginUdpPort", "") : geyserUdpPort;
@@ -636,6 +678,12 @@ public class GeyserImpl implements GeyserApi {
         }
 
         scheduledThread.shutdown();
+        if (chunkEncodingExecutor != null) {
+            chunkEncodingExecutor.shutdown();
+        }
+        if (loginVerificationPool != null) {
+            loginVerificationPool.shutdown();
+        }
         geyserServer.shutdown();
         if (skinUploader != null) {
             skinUploader.close();
@@ -99,12 +99,18 @@ public interface GeyserConfiguration {
 
     int getCacheImages();
 
+    int getCacheImagesSize();
+
+    int getSkinCacheSize();
+
     boolean isAllowCustomSkulls();
 
     int getMaxVisibleCustomSkulls();
 
     int getCustomSkullRenderDistance();
 
+    int getSkinStreamingDistance();
+
     boolean isLogPlayerIpAddresses();
 
     boolean isNotifyOnNewBedrockUpdate();
@@ -128,6 +134,15 @@ public interface GeyserConfiguration {
 
         int getCompressionLevel();
 
+        boolean isAdaptiveCompression();
+
+        List<String> getSnappyCompressionIPs();
+
+        /**
+         * @return Unmodifiable list of {@link CIDRMatcher}s from {@link #getSnappyCompressionIPs()}
+         */
+        List<CIDRMatcher> getSnappyCompressionMatchers();
+
         boolean isEnableProxyProtocol();
 
         List<String> getProxyProtocolWhitelistedIPs();
@@ -148,6 +163,8 @@ public interface GeyserConfiguration {
 
         boolean isForwardHost();
 
+        int getMaxBatchedWrites();
+
         default String minecraftVersion() {
             return GameProtocol.getJavaMinecraftVersion();
         }
@@ -177,6 +194,20 @@ public interface GeyserConfiguration {
 
     boolean isDisableCompression();
 
+    boolean isDirectConnectionPassthrough();
+
+    boolean isEnableClientBlobCache();
+
+    int getChunkEncodingThreads();
+
+    int getLoginVerificationThreads();
+
+    int getLoginVerificationMaxPerAddress();
+
+    int getSharedChunkCacheSize();
+
+    boolean isShareCachedChunks();
+
     int getConfigVersion();
 
     static void checkGeyserConfiguration(GeyserConfiguration geyserConfig, GeyserLogger geyserLogger) {
@@ -118,6 +118,12 @@ public abstract class GeyserJacksonConfiguration implements GeyserConfiguration
     @JsonProperty("cache-images")
     private int cacheImages = 0;
 
+    @JsonProperty("cache-images-size")
+    private int cacheImagesSize = 256;
+
+    @JsonProperty("skin-cache-size")
+    private int skinCacheSize = 128;
+
     @JsonProperty("allow-custom-skulls")
     private boolean allowCustomSkulls = true;
 
@@ -127,6 +133,9 @@ public abstract class GeyserJacksonConfiguration implements GeyserConfiguration
     @JsonProperty("custom-skull-render-distance")
     private int customSkullRenderDistance = 32;
 
+    @JsonProperty("skin-streaming-distance")
+    private int skinStreamingDistance = 0;
+
     @JsonProperty("add-non-bedrock-items")
     private boolean addNonBedrockItems = true;
 
@@ -218,6 +227,28 @@ public abstract class GeyserJacksonConfiguration implements GeyserConfiguration
             return Math.max(-1, Math.min(compressionLevel, 9));
         }
 
+        @Getter
+        @JsonProperty("adaptive-compression")
+        private boolean adaptiveCompression = false;
+
+        @Getter
+        @JsonProperty("snappy-compression-ips")
+        private List<String> snappyCompressionIPs = Collections.emptyList();
+
+        @JsonIgnore
+        private List<CIDRMatcher> snappyCompressionMatchers = null;
+
+        @Override
+        public List<CIDRMatcher> getSnappyCompressionMatchers() {
+            List<CIDRMatcher> matchers = this.snappyCompressionMatchers;
+            if (matchers == null) {
+                this.snappyCompressionMatchers = matchers = snappyCompressionIPs.stream()
+                        .map(CIDRMatcher::new)
+                        .toList();
+            }
+            return matchers;
+        }
+
         @Getter
         @JsonProperty("enable-proxy-protocol")
         private boolean enableProxyProtocol = false;
@@ -299,6 +330,10 @@ public abstract class GeyserJacksonConfiguration implements GeyserConfiguration
         @Getter
         @JsonProperty("forward-hostname")
         private boolean forwardHost = false;
+
+        @Getter
+        @JsonProperty("max-batched-writes")
+        private int maxBatchedWrites = 0;
     }
 
     @Getter
@@ -338,6 +373,27 @@ public abstract class GeyserJacksonConfiguration implements GeyserConfiguration
     @JsonProperty("disable-compression")
     private boolean isDisableCompression = true;
 
+    @JsonProperty("direct-connection-passthrough")
+    private boolean directConnectionPassthrough = false;
+
+    @JsonProperty("enable-client-blob-cache")
+    private boolean enableClientBlobCache = false;
+
+    @JsonProperty("chunk-encoding-threads")
+    private int chunkEncodingThreads = 0;
+
+    @JsonProperty("login-verification-threads")
+    private int loginVerificationThreads = 0;
+
+    @JsonProperty("login-verification-max-per-address")
+    private int loginVerificationMaxPerAddress = 4;
+
+    @JsonProperty("shared-chunk-cache-size")
+    private int sharedChunkCacheSize = 0;
+
+    @JsonProperty("share-cached-chunks")
+    private boolean shareCachedChunks = false;
+
     @JsonProperty("config-version")
     private int configVersion = 0;
 
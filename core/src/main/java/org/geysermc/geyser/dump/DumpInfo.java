@@ -41,8 +41,14 @@ import org.geysermc.geyser.GeyserImpl;
 import org.geysermc.geyser.api.GeyserApi;
 import org.geysermc.geyser.api.extension.Extension;
 import org.geysermc.geyser.configuration.GeyserConfiguration;
+import org.geysermc.geyser.level.chunk.SharedChunkSections;
+import org.geysermc.geyser.network.AdaptiveCompression;
 import org.geysermc.geyser.network.GameProtocol;
+import org.geysermc.geyser.network.LoginVerificationPool;
+import org.geysermc.geyser.network.netty.handler.DownstreamWriteCounter;
 import org.geysermc.geyser.session.GeyserSession;
+import org.geysermc.geyser.session.cache.SkinDeliveryCache;
+import org.geysermc.geyser.skin.SkinStore;
 import org.geysermc.geyser.text.AsteriskSerializer;
 import org.geysermc.geyser.util.CpuUtils;
 import org.geysermc.geyser.util.FileUtils;
@@ -62,6 +68,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Getter
@@ -78,6 +85,13 @@ public class DumpInfo {
     private final GeyserConfiguration config;
     private final Floodgate floodgate;
     private final Object2IntMap<DeviceOs> userPlatforms;
+    private final long chunkCacheBytes;
+    private final long sharedChunkCacheBytes;
+    private final CompressionInfo compressionInfo;
+    private final DownstreamWriteInfo downstreamWriteInfo;
+    private final SkinDeliveryInfo skinDeliveryInfo;
+    private final SkinStoreInfo skinStoreInfo;
+    private final LoginVerificationInfo loginVerificationInfo;
     private final int connectionAttempts;
     private final HashInfo hashInfo;
     private final RamInfo ramInfo;
@@ -125,10 +139,60 @@ public class DumpInfo {
         }
 
         this.userPlatforms = new Object2IntOpenHashMap<>();
+        long chunkCacheBytes = 0;
+        long uncompressedBytes = 0;
+        long compressedBytes = 0;
+        long compressionNanos = 0;
+        List<SessionCompressionInfo> sessionCompression = new ArrayList<>();
+        long downstreamWrites = 0;
+        long downstreamFlushes = 0;
+        int pendingSkins = 0;
+        long sentSkins = 0;
+        long sentSkinBytes = 0;
+        long skippedSkins = 0;
+        long savedSkinBytes = 0;
         for (GeyserSession session : GeyserImpl.getInstance().getSessionManager().getAllSessions()) {
             DeviceOs device = session.getClientData().getDeviceOs();
             userPlatforms.put(device, userPlatforms.getOrDefault(device, 0) + 1);
+            chunkCacheBytes += session.getChunkCache().getBytesHeld();
+
+            AdaptiveCompression compression = session.getUpstream().getCompression();
+            if (compression != null) {
+                uncompressedBytes += compression.getUncompressedBytes();
+                compressedBytes += compression.getCompressedBytes();
+                compressionNanos += compression.getCompressionNanos();
+                sessionCompression.add(new SessionCompressionInfo(compression.getAlgorithm().toString(), compression.getLevel(),
+                        compression.getUncompressedBytes() / 1024, compression.getCompressedBytes() / 1024,
+                        compression.getUncompressedBytes() == 0 ? 0 : (double) compression.getCompressedBytes() / compression.getUncompressedBytes(),
+                        TimeUnit.NANOSECONDS.toMillis(compression.getCompressionNanos())));
+            }
+
+            DownstreamWriteCounter writeCounter = session.getDownstreamWriteCounter();
+            if (writeCounter != null) {
+                downstreamWrites += writeCounter.getWrites();
+                downstreamFlushes += writeCounter.getFlushes();
+            }
+
+            SkinDeliveryCache skinDeliveryCache = session.getSkinDeliveryCache();
+            pendingSkins += skinDeliveryCache.getPendingSkins();
+            sentSkins += skinDeliveryCache.getSentSkins();
+            sentSkinBytes += skinDeliveryCache.getSentBytes();
+            skippedSkins += skinDeliveryCache.getSkippedSkins();
+            savedSkinBytes += skinDeliveryCache.getSavedBytes();
         }
+        this.compressionInfo = new CompressionInfo(uncompressedBytes / MEGABYTE, compressedBytes / MEGABYTE,
+                uncompressedBytes == 0 ? 0 : (double) compressedBytes / uncompressedBytes, TimeUnit.NANOSECONDS.toMillis(compressionNanos),
+                sessionCompression);
+        this.downstreamWriteInfo = new DownstreamWriteInfo(downstreamWrites, downstreamFlushes);
+        this.skinDeliveryInfo = new SkinDeliveryInfo(pendingSkins, sentSkins, sentSkinBytes, skippedSkins, savedSkinBytes);
+        this.skinStoreInfo = new SkinStoreInfo(SkinStore.getEntryCount(), SkinStore.getWeightedBytes() / MEGABYTE,
+                SkinStore.getDeduplicatedBytes() / MEGABYTE, SkinStore.getStats().hitRate());
+        this.chunkCacheBytes = chunkCacheBytes;
+        LoginVerificationPool loginVerificationPool = GeyserImpl.getInstance().getLoginVerificationPool();
+        this.loginVerificationInfo = loginVerificationPool == null ? null : new LoginVerificationInfo(loginVerificationPool.getQueueDepth(),
+                loginVerificationPool.getVerifications(), loginVerificationPool.getRejections(), loginVerificationPool.getAverageVerificationMillis());
+        SharedChunkSections sharedChunkSections = GeyserImpl.getInstance().getSharedChunkSections();
+        this.sharedChunkCacheBytes = sharedChunkSections != null ? sharedChunkSections.estimateBytes() : 0;
 
         this.connectionAttempts = GeyserImpl.getInstance().getGeyserServer().getConnectionAttempts();
 
@@ -264,6 +328,32 @@ public class DumpInfo {
     public record HashInfo(String md5Hash, String sha256Hash) {
     }
 
+    /**
+     * Totals of the packets compressed for the sessions that are currently online.
+     */
+    public record CompressionInfo(long uncompressedMegabytes, long compressedMegabytes, double ratio, long cpuMillis,
+                                  List<SessionCompressionInfo> sessions) {
+    }
+
+    /**
+     * How the packets of one session were compressed. Sessions are not named, as dumps are shared publicly.
+     */
+    public record SessionCompressionInfo(String algorithm, int level, long uncompressedKilobytes, long compressedKilobytes,
+                                         double ratio, long cpuMillis) {
+    }
+
+    public record DownstreamWriteInfo(long writes, long flushes) {
+    }
+
+    public record SkinDeliveryInfo(int pending, long sent, long sentBytes, long skipped, long savedBytes) {
+    }
+
+    public record SkinStoreInfo(long entries, long weightedMegabytes, long deduplicatedMegabytes, double hitRate) {
+    }
+
+    public record LoginVerificationInfo(int queueDepth, long verifications, long rejections, double averageMillis) {
+    }
+
     public record RamInfo(long free, long total, long max) {
         public RamInfo() {
             this(Runtime.getRuntime().freeMemory() / MEGABYTE,
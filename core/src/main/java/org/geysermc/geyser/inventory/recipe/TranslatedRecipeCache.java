@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2019-2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.inventory.recipe;
+
+import com.github.steveice10.mc.protocol.data.game.recipe.Recipe;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import org.geysermc.geyser.network.EncodedPacket;
+import org.geysermc.geyser.registry.type.ItemMappings;
+import org.geysermc.geyser.session.GeyserSession;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shares translated recipes between sessions that receive the same recipes from the Java server, which is usually
+ * every player on the same backend. Recipe outputs are translated with the session's locale and tooltip setting,
+ * so those are part of the key as well.
+ */
+public final class TranslatedRecipeCache {
+    /**
+     * A handful of recipe sets covers every backend behind a proxy; entries for backends nobody is on anymore expire.
+     */
+    private static final Cache<Key, TranslatedRecipes> CACHE = CacheBuilder.newBuilder()
+            .maximumSize(16)
+            .expireAfterAccess(30, TimeUnit.MINUTES)
+            .build();
+
+    /**
+     * Returns the recipes translated for this session, translating them if no session with the same settings has received
+     * these recipes yet. If another session is already translating them, this waits for its result.
+     */
+    public static TranslatedRecipes get(GeyserSession session, Recipe[] recipes, Callable<TranslatedRecipes> translator) {
+        Key key = new Key(session.getUpstream().getProtocolVersion(), session.getItemMappings(), session.locale(),
+                session.isAdvancedTooltips(), recipes);
+        try {
+            return CACHE.get(key, translator);
+        } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Everything a session needs from a recipe packet. The maps are shared between sessions and must be copied before
+     * they are changed.
+     *
+     * @param craftingData the encoded crafting data packet
+     * @param sendTrimRecipes whether the Java server sent smithing trim recipes
+     * @param craftingRecipes the crafting recipes by Bedrock network ID
+     * @param stonecutterRecipes the stonecutter recipes by Bedrock network ID
+     * @param javaToBedrockRecipeIds the Bedrock recipe IDs that each Java recipe was translated to
+     * @param lastRecipeNetId the next free Bedrock network ID
+     */
+    public record TranslatedRecipes(EncodedPacket craftingData, boolean sendTrimRecipes, Int2ObjectMap<GeyserRecipe> craftingRecipes,
+                                    Int2ObjectMap<GeyserStonecutterData> stonecutterRecipes,
+                                    Map<String, List<String>> javaToBedrockRecipeIds, int lastRecipeNetId) {
+    }
+
+    /**
+     * Item mappings are compared by identity, as there is one instance per Bedrock version.
+     */
+    private static final class Key {
+        private final int protocolVersion;
+        private final ItemMappings itemMappings;
+        private final String locale;
+        private final boolean advancedTooltips;
+        private final Recipe[] recipes;
+        private final int hashCode;
+
+        private Key(int protocolVersion, ItemMappings itemMappings, String locale, boolean advancedTooltips, Recipe[] recipes) {
+            this.protocolVersion = protocolVersion;
+            this.itemMappings = itemMappings;
+            this.locale = locale;
+            this.advancedTooltips = advancedTooltips;
+            this.recipes = recipes;
+
+            int result = protocolVersion;
+            result = 31 * result + System.identityHashCode(itemMappings);
+            result = 31 * result + locale.hashCode();
+            result = 31 * result + Boolean.hashCode(advancedTooltips);
+            result = 31 * result + Arrays.hashCode(recipes);
+            this.hashCode = result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return hashCode == other.hashCode && protocolVersion == other.protocolVersion && itemMappings == other.itemMappings
+                    && advancedTooltips == other.advancedTooltips && locale.equals(other.locale) && Arrays.equals(recipes, other.recipes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private TranslatedRecipeCache() {
+    }
+}
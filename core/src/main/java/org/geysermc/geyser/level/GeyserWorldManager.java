@@ -74,10 +74,10 @@ public class GeyserWorldManager extends WorldManager {
     }
 
     @Override
-    public int[] getBlocksAt(GeyserSession session, BlockPositionIterator iter) {
+    public int[] getBlocksAt(GeyserSession session, BlockPositionIterator iter, int[] blocks) {
         var erosionHandler = session.getErosionHandler().getAsActive();
         if (erosionHandler == null) {
-            return super.getBlocksAt(session, iter);
+            return super.getBlocksAt(session, iter, blocks);
         }
         CompletableFuture<int[]> future = new CompletableFuture<>();
         erosionHandler.setPendingBatchLookup(future);
@@ -79,7 +79,19 @@ public abstract class WorldManager {
     }
 
     public int[] getBlocksAt(GeyserSession session, BlockPositionIterator iter) {
-        int[] blocks = new int[iter.getMaxIterations()];
+        return getBlocksAt(session, iter, new int[iter.getMaxIterations()]);
+    }
+
+    /**
+     * Gets the block states of all positions of the iterator, indexed by iteration.
+     *
+     * @param blocks an array to fill, so callers can reuse it between calls
+     * @return the given array, or a new array if the given array is too small
+     */
+    public int[] getBlocksAt(GeyserSession session, BlockPositionIterator iter, int[] blocks) {
+        if (blocks.length < iter.getMaxIterations()) {
+            blocks = new int[iter.getMaxIterations()];
+        }
         for (; iter.hasNext(); iter.next()) {
             int networkId = this.getBlockAt(session, iter.getX(), iter.getY(), iter.getZ());
             blocks[iter.getIteration()] = networkId;
@@ -277,6 +277,15 @@ public final class BlockStateValues {
         return ALL_CAULDRONS.contains(state);
     }
 
+    /**
+     * Flower pots, pistons and cauldrons are block entities on Bedrock, but not on Java.
+     *
+     * @return if this Java block state needs a block entity that only exists on Bedrock
+     */
+    public static boolean hasBedrockOnlyBlockEntity(int state) {
+        return FLOWER_POT_VALUES.containsKey(state) || PISTON_VALUES.containsKey(state) || ALL_CAULDRONS.contains(state);
+    }
+
     /**
      * The block state in Java and Bedrock both contain the conditional bit, however command block block entity tags
      * in Bedrock need the conditional information.
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2019-2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level.chunk;
+
+import com.github.steveice10.mc.protocol.data.game.chunk.BitStorage;
+import com.github.steveice10.mc.protocol.data.game.chunk.DataPalette;
+import com.github.steveice10.mc.protocol.data.game.chunk.palette.GlobalPalette;
+import com.github.steveice10.mc.protocol.data.game.chunk.palette.Palette;
+import com.github.steveice10.mc.protocol.data.game.chunk.palette.SingletonPalette;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMaps;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import org.geysermc.geyser.level.block.BlockStateValues;
+
+import java.util.Arrays;
+
+/**
+ * A compact copy of the block states of a Java chunk section, as kept by the chunk cache.
+ * <p>
+ * Values are packed the same way Java Edition packs them: each long holds {@code 64 / bits} values, and values never
+ * span two longs. Sections that only contain one block state hold no data and are shared between all chunks.
+ * Shared sections are never modified; {@link #set(int, int, int, int)} returns a modified copy instead.
+ */
+public final class CachedChunkSection {
+    private static final int SIZE = 4096;
+    /**
+     * The smallest amount of bits used for sections that have a palette, matching Java Edition.
+     */
+    private static final int MIN_PALETTE_BITS = 4;
+    private static final Int2ObjectMap<CachedChunkSection> UNIFORM_SECTIONS = Int2ObjectMaps.synchronize(new Int2ObjectOpenHashMap<>());
+
+    public static final CachedChunkSection AIR = uniform(BlockStateValues.JAVA_AIR_ID);
+
+    /**
+     * The block state of each value, or null if values are block states themselves.
+     */
+    private int[] palette;
+    private int paletteSize;
+    private long[] data;
+    private int bits;
+    private int valuesPerLong;
+    private long mask;
+    private final boolean shared;
+
+    private CachedChunkSection(int[] palette, int paletteSize, long[] data, int bits, boolean shared) {
+        this.palette = palette;
+        this.paletteSize = paletteSize;
+        this.shared = shared;
+        setData(data, bits);
+    }
+
+    /**
+     * @return the shared section made up of only this block state
+     */
+    public static CachedChunkSection uniform(int blockState) {
+        CachedChunkSection section = UNIFORM_SECTIONS.get(blockState);
+        if (section == null) {
+            section = new CachedChunkSection(new int[] {blockState}, 1, new long[0], 0, true);
+            UNIFORM_SECTIONS.put(blockState, section);
+        }
+        return section;
+    }
+
+    /**
+     * Copies the block states out of a section decoded by MCProtocolLib. The decoded section must not be modified afterwards,
+     * as its data array may be kept.
+     *
+     * @param shared if the section may be used by more than one chunk cache, or its data is still read elsewhere, and
+     *               should never be modified
+     */
+    public static CachedChunkSection from(DataPalette dataPalette, boolean shared) {
+        Palette palette = dataPalette.getPalette();
+        if (palette instanceof SingletonPalette) {
+            return uniform(palette.idToState(0));
+        }
+
+        BitStorage storage = dataPalette.getStorage();
+        if (palette instanceof GlobalPalette) {
+            return new CachedChunkSection(null, 0, storage.getData(), storage.getBitsPerEntry(), shared);
+        }
+
+        int[] states = new int[palette.size()];
+        for (int i = 0; i < states.length; i++) {
+            states[i] = palette.idToState(i);
+        }
+        return new CachedChunkSection(states, states.length, storage.getData(), storage.getBitsPerEntry(), shared);
+    }
+
+    public int get(int x, int y, int z) {
+        if (bits == 0) {
+            return palette[0];
+        }
+        int value = getValue(index(x, y, z));
+        return palette == null ? value : palette[value];
+    }
+
+    /**
+     * Sets the block state at this position.
+     *
+     * @return this section, or the section that replaces it if this section is shared
+     */
+    public CachedChunkSection set(int x, int y, int z, int blockState) {
+        if (shared) {
+            if (get(x, y, z) == blockState) {
+                return this;
+            }
+            return copy().set(x, y, z, blockState);
+        }
+
+        int value;
+        if (palette == null) {
+            value = blockState;
+            if (value > mask) {
+                resize(Integer.SIZE - Integer.numberOfLeadingZeros(value));
+            }
+        } else {
+            value = paletteIndex(blockState);
+            if (value == -1) {
+                value = paletteSize;
+                if (paletteSize == palette.length) {
+                    palette = Arrays.copyOf(palette, Math.max(4, paletteSize * 2));
+                }
+                palette[paletteSize++] = blockState;
+                if (value > mask) {
+                    resize(Math.max(MIN_PALETTE_BITS, Integer.SIZE - Integer.numberOfLeadingZeros(value)));
+                }
+            }
+        }
+        setValue(index(x, y, z), value);
+        return this;
+    }
+
+    /**
+     * @return an approximation of how much memory this section uses, in bytes. Sections made up of one block state use none
+     */
+    public long estimateBytes() {
+        if (bits == 0) {
+            return 0;
+        }
+        long size = 48 + 16 + data.length * 8L;
+        if (palette != null) {
+            size += 16 + palette.length * 4L;
+        }
+        return size;
+    }
+
+    private CachedChunkSection copy() {
+        if (bits == 0) {
+            // Every value of a new palette section is already 0, so the whole section is this block state
+            int[] newPalette = new int[4];
+            newPalette[0] = palette[0];
+            return new CachedChunkSection(newPalette, 1, new long[longsFor(MIN_PALETTE_BITS)], MIN_PALETTE_BITS, false);
+        }
+        int[] newPalette = palette == null ? null : Arrays.copyOf(palette, palette.length);
+        return new CachedChunkSection(newPalette, paletteSize, data.clone(), bits, false);
+    }
+
+    private int paletteIndex(int blockState) {
+        for (int i = 0; i < paletteSize; i++) {
+            if (palette[i] == blockState) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void resize(int newBits) {
+        int[] values = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            values[i] = getValue(i);
+        }
+        setData(new long[longsFor(newBits)], newBits);
+        for (int i = 0; i < SIZE; i++) {
+            setValue(i, values[i]);
+        }
+    }
+
+    private void setData(long[] data, int bits) {
+        this.data = data;
+        this.bits = bits;
+        this.valuesPerLong = bits == 0 ? 0 : 64 / bits;
+        this.mask = bits == 0 ? 0 : (1L << bits) - 1;
+    }
+
+    private int getValue(int index) {
+        int longIndex = index / valuesPerLong;
+        int offset = (index - longIndex * valuesPerLong) * bits;
+        return (int) ((data[longIndex] >>> offset) & mask);
+    }
+
+    private void setValue(int index, int value) {
+        int longIndex = index / valuesPerLong;
+        int offset = (index - longIndex * valuesPerLong) * bits;
+        data[longIndex] = data[longIndex] & ~(mask << offset) | ((long) value & mask) << offset;
+    }
+
+    private static int longsFor(int bits) {
+        int valuesPerLong = 64 / bits;
+        return (SIZE + valuesPerLong - 1) / valuesPerLong;
+    }
+
+    private static int index(int x, int y, int z) {
+        return y << 8 | z << 4 | x;
+    }
+}
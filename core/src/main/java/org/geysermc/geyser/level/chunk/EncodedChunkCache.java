@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2019-2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level.chunk;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.cloudburstmc.nbt.NbtMap;
+import org.geysermc.geyser.level.BedrockDimension;
+import org.geysermc.geyser.registry.type.BlockMappings;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * A cache shared between all sessions that holds the Bedrock encoding of chunk sections and biomes, so players
+ * receiving the same Java chunk (for example, everyone joining at spawn) only need it converted once.
+ * <p>
+ * Anything that depends on the individual session, such as Java block entities, lecterns and custom skulls,
+ * is not part of a cached entry and is applied on top of it.
+ */
+public final class EncodedChunkCache {
+    /**
+     * Rough overhead of a cached entry and its arrays, in bytes.
+     */
+    private static final int ENTRY_OVERHEAD = 128;
+    /**
+     * Rough size of a Bedrock-only block entity tag, in bytes.
+     */
+    private static final int BLOCK_ENTITY_SIZE = 64;
+
+    private final Cache<Key, Entry> cache;
+
+    public EncodedChunkCache(long maximumBytes) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher((Weigher<Key, Entry>) (key, entry) -> weigh(entry))
+                .build();
+    }
+
+    /**
+     * Returns the cached entry for this key, or encodes and caches it. If another thread is already encoding the same
+     * chunk, this waits for its result instead of encoding the chunk again.
+     */
+    public Entry get(Key key, Callable<Entry> encoder) throws IOException {
+        try {
+            return cache.get(key, encoder);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException(e.getCause());
+        } catch (UncheckedExecutionException | ExecutionError e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static int weigh(Entry entry) {
+        long weight = ENTRY_OVERHEAD + entry.biomes().length;
+        for (byte[] section : entry.sections()) {
+            weight += section.length + 16;
+        }
+        weight += (long) entry.bedrockOnlyBlockEntities().size() * BLOCK_ENTITY_SIZE;
+        return (int) Math.min(Integer.MAX_VALUE, weight);
+    }
+
+    /**
+     * The encoded parts of a Bedrock chunk that do not depend on the session.
+     *
+     * @param sections the network encoding of each Bedrock chunk section, from the bottom of the world up to the highest non-empty section
+     * @param biomes the network encoding of all biome data
+     * @param blobIds the blob cache hash of each section followed by the biomes
+     * @param bedrockOnlyBlockEntities block entities that only exist on Bedrock, such as flower pots and pistons
+     */
+    public record Entry(byte[][] sections, byte[] biomes, long[] blobIds, List<NbtMap> bedrockOnlyBlockEntities) {
+    }
+
+    /**
+     * Identifies a Java chunk along with everything else that affects how it is translated.
+     * Block mappings are compared by identity, as there is one instance per Bedrock version.
+     */
+    public static final class Key {
+        private final BlockMappings blockMappings;
+        private final BedrockDimension bedrockDimension;
+        private final int[] biomeTranslations;
+        private final int biomeGlobalPalette;
+        private final int yOffset;
+        private final int chunkSize;
+        private final int chunkX;
+        private final int chunkZ;
+        private final int dataLength;
+        private final long dataHash;
+        private final int hashCode;
+
+        public Key(BlockMappings blockMappings, BedrockDimension bedrockDimension, int[] biomeTranslations, int biomeGlobalPalette,
+                   int yOffset, int chunkSize, int chunkX, int chunkZ, int dataLength, long dataHash) {
+            this.blockMappings = blockMappings;
+            this.bedrockDimension = bedrockDimension;
+            this.biomeTranslations = biomeTranslations;
+            this.biomeGlobalPalette = biomeGlobalPalette;
+            this.yOffset = yOffset;
+            this.chunkSize = chunkSize;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            this.dataLength = dataLength;
+            this.dataHash = dataHash;
+
+            int result = System.identityHashCode(blockMappings);
+            result = 31 * result + bedrockDimension.hashCode();
+            result = 31 * result + Arrays.hashCode(biomeTranslations);
+            result = 31 * result + biomeGlobalPalette;
+            result = 31 * result + yOffset;
+            result = 31 * result + chunkSize;
+            result = 31 * result + chunkX;
+            result = 31 * result + chunkZ;
+            result = 31 * result + dataLength;
+            result = 31 * result + Long.hashCode(dataHash);
+            this.hashCode = result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return hashCode == other.hashCode && dataHash == other.dataHash && dataLength == other.dataLength
+                    && chunkX == other.chunkX && chunkZ == other.chunkZ && yOffset == other.yOffset && chunkSize == other.chunkSize
+                    && biomeGlobalPalette == other.biomeGlobalPalette && blockMappings == other.blockMappings
+                    && bedrockDimension.equals(other.bedrockDimension) && Arrays.equals(biomeTranslations, other.biomeTranslations);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
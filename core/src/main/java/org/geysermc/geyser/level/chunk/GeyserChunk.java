@@ -22,17 +22,144 @@
  * @author GeyserMC
  * @link https://github.com/GeyserMC/Geyser
  */
-
 package org.geysermc.geyser.level.chunk;
 
-import com.github.steveice10.mc.protocol.data.game.chunk.DataPalette;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.geysermc.geyser.level.block.BlockStateValues;
 
 /**
  * Acts as a lightweight chunk class that doesn't store biomes, heightmaps or block entities.
+ * <p>
+ * A chunk either holds its own sections, or views a chunk shared with other sessions. A viewing chunk remembers the
+ * blocks that changed since in a small map, and copies the shared sections once too many blocks have changed.
  */
-public record GeyserChunk(DataPalette[] sections) {
+public final class GeyserChunk {
+    /**
+     * How many blocks may change before a chunk stops viewing its shared copy.
+     */
+    private static final int MAX_CHANGED_BLOCKS = 256;
+
+    private CachedChunkSection @Nullable [] sections;
+    private SharedChunkSections.@Nullable Entry shared;
+    /**
+     * Block states that changed since the shared chunk was received, by {@link #blockIndex(int, int, int, int)}.
+     */
+    private @Nullable Int2IntOpenHashMap changedBlocks;
+
+    private GeyserChunk(CachedChunkSection @Nullable [] sections, SharedChunkSections.@Nullable Entry shared) {
+        this.sections = sections;
+        this.shared = shared;
+    }
+
+    public static GeyserChunk from(CachedChunkSection[] sections) {
+        return new GeyserChunk(sections, null);
+    }
+
+    /**
+     * @param shared a reference to a shared chunk, which this chunk gives up on {@link #release()}
+     */
+    public static GeyserChunk view(SharedChunkSections.Entry shared) {
+        return new GeyserChunk(null, shared);
+    }
+
+    public int sectionCount() {
+        return sections().length;
+    }
+
+    public int getBlock(int sectionIndex, int x, int y, int z) {
+        if (changedBlocks != null) {
+            int blockState = changedBlocks.get(blockIndex(sectionIndex, x, y, z));
+            if (blockState != -1) {
+                return blockState;
+            }
+        }
+
+        CachedChunkSection section = sections()[sectionIndex];
+        return section == null ? BlockStateValues.JAVA_AIR_ID : section.get(x, y, z);
+    }
+
+    public void setBlock(int sectionIndex, int x, int y, int z, int blockState) {
+        if (sections == null) {
+            int index = blockIndex(sectionIndex, x, y, z);
+            if (changedBlocks == null) {
+                changedBlocks = new Int2IntOpenHashMap();
+                changedBlocks.defaultReturnValue(-1);
+            }
+            if (changedBlocks.size() < MAX_CHANGED_BLOCKS || changedBlocks.containsKey(index)) {
+                changedBlocks.put(index, blockState);
+                return;
+            }
+            detach();
+        }
+
+        setOwnBlock(sectionIndex, x, y, z, blockState);
+    }
+
+    /**
+     * Gives up the reference to the shared chunk, if this chunk views one.
+     */
+    public void release() {
+        if (shared != null) {
+            shared.release();
+            shared = null;
+        }
+    }
+
+    /**
+     * @return an approximation of how much memory this chunk uses for itself, in bytes
+     */
+    public long estimateBytes() {
+        if (sections == null) {
+            // Each entry takes a key and a value in the map, which keeps its arrays at most half full
+            return changedBlocks == null ? 16 : 16 + changedBlocks.size() * 16L;
+        }
+
+        long size = 16 + sections.length * 4L;
+        for (CachedChunkSection section : sections) {
+            if (section != null) {
+                size += section.estimateBytes();
+            }
+        }
+        return size;
+    }
+
+    private CachedChunkSection[] sections() {
+        return sections != null ? sections : shared.sections();
+    }
+
+    /**
+     * Copies the shared sections, so this chunk can be modified on its own.
+     */
+    private void detach() {
+        // The sections themselves are shared, and copy themselves once modified
+        sections = shared.sections().clone();
+        release();
+
+        Int2IntOpenHashMap changedBlocks = this.changedBlocks;
+        this.changedBlocks = null;
+        for (Int2IntMap.Entry entry : changedBlocks.int2IntEntrySet()) {
+            int index = entry.getIntKey();
+            setOwnBlock(index >> 12, index & 0xF, (index >> 8) & 0xF, (index >> 4) & 0xF, entry.getIntValue());
+        }
+    }
+
+    private void setOwnBlock(int sectionIndex, int x, int y, int z, int blockState) {
+        CachedChunkSection section = sections[sectionIndex];
+        if (section == null) {
+            if (blockState == BlockStateValues.JAVA_AIR_ID) {
+                // Nothing to update
+                return;
+            }
+            // A previously empty chunk, which is no longer empty as a block has been added to it
+            section = CachedChunkSection.AIR;
+        }
+
+        sections[sectionIndex] = section.set(x, y, z, blockState);
+    }
 
-    public static GeyserChunk from(DataPalette[] sections) {
-        return new GeyserChunk(sections);
+    private static int blockIndex(int sectionIndex, int x, int y, int z) {
+        return sectionIndex << 12 | y << 8 | z << 4 | x;
     }
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2019-2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level.chunk;
+
+import com.github.steveice10.mc.protocol.data.game.chunk.DataPalette;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lets the chunk caches of sessions in the same world share the chunks they have loaded, such as the spawn chunks
+ * every player loads when joining. Each shared chunk is held for as long as a chunk cache still references it.
+ * <p>
+ * Chunks are only shared between sessions that received the same chunk data. Servers may send different data for the
+ * same chunk to different players, for example with anti-xray or per-player fake blocks, so each distinct copy of a
+ * chunk is kept separately. Block updates are not applied to a shared chunk either; each session keeps the blocks
+ * that changed since in its own {@link GeyserChunk}.
+ */
+public final class SharedChunkSections {
+    private final Map<DataKey, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Takes a reference to the shared copy of this chunk made from the same chunk data, decoding these sections
+     * into a new copy if there is none yet.
+     *
+     * @param javaSections the decoded Java sections, which must not be modified afterwards
+     */
+    public Entry acquire(Key key, DataPalette[] javaSections, int dataLength, long dataHash) {
+        return entries.compute(new DataKey(key, dataLength, dataHash), (k, entry) -> {
+            if (entry == null) {
+                CachedChunkSection[] sections = new CachedChunkSection[javaSections.length];
+                for (int i = 0; i < javaSections.length; i++) {
+                    sections[i] = CachedChunkSection.from(javaSections[i], true);
+                }
+                entry = new Entry(k, sections);
+            }
+            entry.references++;
+            return entry;
+        });
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return an approximation of how much memory all shared chunks use, in bytes
+     */
+    public long estimateBytes() {
+        long size = 0;
+        for (Entry entry : entries.values()) {
+            CachedChunkSection[] sections = entry.sections;
+            size += 16 + sections.length * 4L;
+            for (CachedChunkSection section : sections) {
+                if (section != null) {
+                    size += section.estimateBytes();
+                }
+            }
+        }
+        return size;
+    }
+
+    public final class Entry {
+        private final DataKey key;
+        /**
+         * Neither the array nor its sections are ever modified.
+         */
+        private final CachedChunkSection[] sections;
+        // Only accessed while the entry is being computed in the map
+        private int references;
+
+        private Entry(DataKey key, CachedChunkSection[] sections) {
+            this.key = key;
+            this.sections = sections;
+        }
+
+        public CachedChunkSection[] sections() {
+            return sections;
+        }
+
+        /**
+         * Gives up a reference taken by {@link #acquire(Key, DataPalette[], int, long)}.
+         */
+        public void release() {
+            entries.computeIfPresent(key, (k, entry) -> {
+                if (entry != this) {
+                    return entry;
+                }
+                return --entry.references <= 0 ? null : entry;
+            });
+        }
+    }
+
+    /**
+     * Identifies a chunk in a world of the server sessions are connected to.
+     */
+    public record Key(String address, int port, String worldName, String dimension, int minY, int chunkSize, long position) {
+    }
+
+    /**
+     * Identifies one copy of a chunk, made from chunk data with this length and hash.
+     */
+    private record DataKey(Key key, int dataLength, long dataHash) {
+    }
+}
@@ -25,8 +25,11 @@
 
 package org.geysermc.geyser.level.chunk.bitarray;
 
+import com.github.steveice10.mc.protocol.data.game.chunk.BitStorage;
 import io.netty.buffer.ByteBuf;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.cloudburstmc.protocol.common.util.VarInts;
+import org.geysermc.geyser.util.ChunkUtils;
 
 public interface BitArray {
 
@@ -36,6 +39,19 @@ public interface BitArray {
 
     int size();
 
+    /**
+     * Fills this array with Java Edition block data, converting it from Java's YZX order to Bedrock's XZY order.
+     *
+     * @param javaData the Java block data, which must hold as many entries as this array
+     * @param paletteRemap if not null, the value to store for each Java value
+     */
+    default void transposeFrom(BitStorage javaData, int @Nullable [] paletteRemap) {
+        for (int yzx = 0; yzx < size(); yzx++) {
+            int value = javaData.get(yzx);
+            set(ChunkUtils.indexYZXtoXZY(yzx), paletteRemap == null ? value : paletteRemap[value]);
+        }
+    }
+
     /**
      * Overridden if the bit array implementation does not require size.
      */
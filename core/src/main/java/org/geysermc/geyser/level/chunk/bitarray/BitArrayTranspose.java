@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2019-2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level.chunk.bitarray;
+
+import com.github.steveice10.mc.protocol.data.game.chunk.BitStorage;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.geysermc.geyser.util.ChunkUtils;
+
+import java.util.Arrays;
+
+/**
+ * Converts Java Edition block data into Bedrock bit array words without going through {@link BitArray#get(int)}
+ * and {@link BitArray#set(int, int)} for every block.
+ */
+final class BitArrayTranspose {
+    /**
+     * Java values of the section currently being converted, in YZX order.
+     */
+    private static final ThreadLocal<int[]> VALUES = ThreadLocal.withInitial(() -> new int[4096]);
+
+    private BitArrayTranspose() {
+    }
+
+    /**
+     * @return if the fast path can be used for this data. Otherwise, the caller should fall back to setting each value
+     */
+    static boolean canTranspose(BitStorage javaData, int size) {
+        return javaData.getSize() == size && javaData.getBitsPerEntry() > 0 && javaData.getBitsPerEntry() <= 32;
+    }
+
+    static void transpose(BitStorage javaData, int @Nullable [] paletteRemap, BitArrayVersion version, int size, int[] words) {
+        int[] values = VALUES.get();
+        if (values.length < size) {
+            values = new int[size];
+            VALUES.set(values);
+        }
+        if (paletteRemap == null) {
+            unpack(javaData, values, size);
+        } else {
+            unpackRemapped(javaData, paletteRemap, values, size);
+        }
+
+        final int bits = version.bits;
+        final int entriesPerWord = version.entriesPerWord;
+        final int mask = version.maxEntryValue;
+        int xzy = 0;
+        for (int i = 0; i < words.length; i++) {
+            int end = Math.min(xzy + entriesPerWord, size);
+            int word = 0;
+            for (int shift = 0; xzy < end; xzy++, shift += bits) {
+                // Swapping the X and Y nibbles converts in both directions
+                word |= (values[ChunkUtils.indexYZXtoXZY(xzy)] & mask) << shift;
+            }
+            words[i] = word;
+        }
+    }
+
+    /**
+     * Unpacks Java's long array, in which values never span two longs, into one int per value.
+     */
+    private static void unpack(BitStorage javaData, int[] values, int size) {
+        final long[] data = javaData.getData();
+        final int bits = javaData.getBitsPerEntry();
+        final int valuesPerLong = 64 / bits;
+        final long mask = (1L << bits) - 1;
+        int index = 0;
+        for (int i = 0; i < data.length && index < size; i++) {
+            long word = data[i];
+            int end = Math.min(index + valuesPerLong, size);
+            for (; index < end; index++) {
+                values[index] = (int) (word & mask);
+                word >>>= bits;
+            }
+        }
+        if (index < size) {
+            Arrays.fill(values, index, size, 0);
+        }
+    }
+
+    private static void unpackRemapped(BitStorage javaData, int[] paletteRemap, int[] values, int size) {
+        final long[] data = javaData.getData();
+        final int bits = javaData.getBitsPerEntry();
+        final int valuesPerLong = 64 / bits;
+        final long mask = (1L << bits) - 1;
+        int index = 0;
+        for (int i = 0; i < data.length && index < size; i++) {
+            long word = data[i];
+            int end = Math.min(index + valuesPerLong, size);
+            for (; index < end; index++) {
+                values[index] = paletteRemap[(int) (word & mask)];
+                word >>>= bits;
+            }
+        }
+        if (index < size) {
+            Arrays.fill(values, index, size, paletteRemap[0]);
+        }
+    }
+}
@@ -25,6 +25,8 @@
 
 package org.geysermc.geyser.level.chunk.bitarray;
 
+import com.github.steveice10.mc.protocol.data.game.chunk.BitStorage;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.cloudburstmc.protocol.common.util.Preconditions;
 import org.geysermc.geyser.util.MathUtils;
 
@@ -101,6 +103,15 @@ public class Pow2BitArray implements BitArray {
         return version;
     }
 
+    @Override
+    public void transposeFrom(BitStorage javaData, int @Nullable [] paletteRemap) {
+        if (!BitArrayTranspose.canTranspose(javaData, this.size)) {
+            BitArray.super.transposeFrom(javaData, paletteRemap);
+            return;
+        }
+        BitArrayTranspose.transpose(javaData, paletteRemap, this.version, this.size, this.words);
+    }
+
     @Override
     public BitArray copy() {
         return new Pow2BitArray(this.version, this.size, Arrays.copyOf(this.words, this.words.length));
@@ -41,6 +41,19 @@ public class BoundingBox implements Cloneable {
     private double sizeY;
     private double sizeZ;
 
+    /**
+     * Copies the position and size of another bounding box into this one.
+     */
+    public void set(BoundingBox other) {
+        middleX = other.middleX;
+        middleY = other.middleY;
+        middleZ = other.middleZ;
+
+        sizeX = other.sizeX;
+        sizeY = other.sizeY;
+        sizeZ = other.sizeZ;
+    }
+
     public void translate(double x, double y, double z) {
         middleX += x;
         middleY += y;
@@ -85,6 +98,28 @@ public class BoundingBox implements Cloneable {
         return Vector3d.from(x, y, z);
     }
 
+    /**
+     * @return the minimum coordinate of this bounding box in the given axis
+     */
+    public double getMin(Axis axis) {
+        return switch (axis) {
+            case X -> middleX - sizeX / 2;
+            case Y -> middleY - sizeY / 2;
+            case Z -> middleZ - sizeZ / 2;
+        };
+    }
+
+    /**
+     * @return the maximum coordinate of this bounding box in the given axis
+     */
+    public double getMax(Axis axis) {
+        return switch (axis) {
+            case X -> middleX + sizeX / 2;
+            case Y -> middleY + sizeY / 2;
+            case Z -> middleZ + sizeZ / 2;
+        };
+    }
+
     public Vector3d getBottomCenter() {
         return Vector3d.from(middleX, middleY - sizeY / 2, middleZ);
     }
@@ -116,14 +151,14 @@ public class BoundingBox implements Cloneable {
             }
         }
         if (offset > 0) {
-            double min = axis.choose(getMin().add(xOffset, yOffset, zOffset));
-            double max = axis.choose(otherBoundingBox.getMax());
+            double min = getMin(axis) + axisOffset(xOffset, yOffset, zOffset, axis);
+            double max = otherBoundingBox.getMax(axis);
             if ((min - max) >= -2.0 * CollisionManager.COLLISION_TOLERANCE) {
                 offset = Math.min(min - max, offset);
             }
         } else if (offset < 0) {
-            double min = axis.choose(otherBoundingBox.getMin());
-            double max = axis.choose(getMax().add(xOffset, yOffset, zOffset));
+            double min = otherBoundingBox.getMin(axis);
+            double max = getMax(axis) + axisOffset(xOffset, yOffset, zOffset, axis);
             if ((min - max) >= -2.0 * CollisionManager.COLLISION_TOLERANCE) {
                 offset = Math.max(max - min, offset);
             }
@@ -140,12 +175,20 @@ public class BoundingBox implements Cloneable {
      */
     public double getIntersectionSize(BoundingBox otherBoundingBox, Direction side) {
         return switch (side) {
-            case DOWN -> getMax().getY() - otherBoundingBox.getMin().getY();
-            case UP -> otherBoundingBox.getMax().getY() - getMin().getY();
-            case NORTH -> getMax().getZ() - otherBoundingBox.getMin().getZ();
-            case SOUTH -> otherBoundingBox.getMax().getZ() - getMin().getZ();
-            case WEST -> getMax().getX() - otherBoundingBox.getMin().getX();
-            case EAST -> otherBoundingBox.getMax().getX() - getMin().getX();
+            case DOWN -> getMax(Axis.Y) - otherBoundingBox.getMin(Axis.Y);
+            case UP -> otherBoundingBox.getMax(Axis.Y) - getMin(Axis.Y);
+            case NORTH -> getMax(Axis.Z) - otherBoundingBox.getMin(Axis.Z);
+            case SOUTH -> otherBoundingBox.getMax(Axis.Z) - getMin(Axis.Z);
+            case WEST -> getMax(Axis.X) - otherBoundingBox.getMin(Axis.X);
+            case EAST -> otherBoundingBox.getMax(Axis.X) - getMin(Axis.X);
+        };
+    }
+
+    private static double axisOffset(double xOffset, double yOffset, double zOffset, Axis axis) {
+        return switch (axis) {
+            case X -> xOffset;
+            case Y -> yOffset;
+            case Z -> zOffset;
         };
     }
 
@@ -44,10 +44,7 @@ import org.geysermc.geyser.session.cache.PistonCache;
 import org.geysermc.geyser.translator.collision.BlockCollision;
 import org.geysermc.geyser.translator.collision.ScaffoldingCollision;
 import org.geysermc.geyser.util.BlockUtils;
-
-import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
-import java.util.Locale;
+import org.geysermc.geyser.util.MathUtils;
 
 public class CollisionManager {
 
@@ -56,6 +53,13 @@ public class CollisionManager {
     @Getter
     private final BoundingBox playerBoundingBox;
 
+    /**
+     * Reused while correcting movement, as movement packets are received more often than any other packet.
+     */
+    private final BoundingBox movementBoundingBox = new BoundingBox(0, 0, 0, 0, 0, 0);
+    private final BoundingBox stretchedBoundingBox = new BoundingBox(0, 0, 0, 0, 0, 0);
+    private int[] blockBuffer = new int[64];
+
     /**
      * Whether the player is inside scaffolding
      */
@@ -74,10 +78,9 @@ public class CollisionManager {
      */
     public static final double COLLISION_TOLERANCE = 0.00001;
     /**
-     * Trims Y coordinates when jumping to prevent rounding issues being sent to the server.
-     * The locale used is necessary so other regions don't use <code>,</code> as their decimal separator.
+     * How many decimal places Y coordinates are trimmed to when jumping, to prevent rounding issues being sent to the server.
      */
-    private static final DecimalFormat DECIMAL_FORMAT = new DecimalFormat("#.#####", new DecimalFormatSymbols(Locale.ENGLISH));
+    private static final int JUMP_Y_DECIMAL_PLACES = 5;
 
     private static final double PLAYER_STEP_UP = 0.6;
 
@@ -140,12 +143,12 @@ public class CollisionManager {
         if (pistonCache.isPlayerAttachedToHoney()) {
             return null;
         }
-        // We need to parse the float as a string since casting a float to a double causes us to
+        // We need to convert the float through its decimal representation since casting a float to a double causes us to
         // lose precision and thus, causes players to get stuck when walking near walls
         double javaY = bedrockPosition.getY() - EntityDefinitions.PLAYER.offset();
 
-        Vector3d position = Vector3d.from(Double.parseDouble(Float.toString(bedrockPosition.getX())), javaY,
-                Double.parseDouble(Float.toString(bedrockPosition.getZ())));
+        Vector3d position = Vector3d.from(MathUtils.floatToDecimalDouble(bedrockPosition.getX()), javaY,
+                MathUtils.floatToDecimalDouble(bedrockPosition.getZ()));
 
         Vector3d startingPos = playerBoundingBox.getBottomCenter();
         Vector3d movement = position.sub(startingPos);
@@ -177,7 +180,7 @@ public class CollisionManager {
 
         if (!onGround) {
             // Trim the position to prevent rounding errors that make Java think we are clipping into a block
-            position = Vector3d.from(position.getX(), Double.parseDouble(DECIMAL_FORMAT.format(position.getY())), position.getZ());
+            position = Vector3d.from(position.getX(), MathUtils.roundToDecimalPlaces(position.getY(), JUMP_Y_DECIMAL_PLACES), position.getZ());
         }
 
         return position;
@@ -236,7 +239,7 @@ public class CollisionManager {
 
         // Used when correction code needs to be run before the main correction
         BlockPositionIterator iter = session.getCollisionManager().playerCollidableBlocksIterator();
-        int[] blocks = session.getGeyser().getWorldManager().getBlocksAt(session, iter);
+        int[] blocks = blockBuffer = session.getGeyser().getWorldManager().getBlocksAt(session, iter, blockBuffer);
         for (iter.reset(); iter.hasNext(); iter.next()) {
             BlockCollision blockCollision = BlockUtils.getCollision(blocks[iter.getIteration()]);
             if (blockCollision != null) {
@@ -282,7 +285,7 @@ public class CollisionManager {
             Vector3d horizontalMovement = Vector3d.from(movement.getX(), 0, movement.getZ());
             Vector3d stepUpMovement = correctMovementForCollisions(horizontalMovement.up(stepUp), boundingBox, checkWorld);
 
-            BoundingBox stretchedBoundingBox = boundingBox.clone();
+            stretchedBoundingBox.set(boundingBox);
             stretchedBoundingBox.extend(horizontalMovement);
             double maxStepUp = correctMovementForCollisions(Vector3d.from(0, stepUp, 0), stretchedBoundingBox, checkWorld).getY();
             if (maxStepUp < stepUp) { // The player collided with a block above them
@@ -317,43 +320,58 @@ public class CollisionManager {
         double movementY = movement.getY();
         double movementZ = movement.getZ();
 
-        BoundingBox movementBoundingBox = boundingBox.clone();
-        movementBoundingBox.extend(movement);
+        movementBoundingBox.set(boundingBox);
+        movementBoundingBox.extend(movementX, movementY, movementZ);
         BlockPositionIterator iter = collidableBlocksIterator(movementBoundingBox);
+        int[] blocks = null;
+        if (checkWorld && (Math.abs(movementX) > CollisionManager.COLLISION_TOLERANCE
+                || Math.abs(movementY) > CollisionManager.COLLISION_TOLERANCE || Math.abs(movementZ) > CollisionManager.COLLISION_TOLERANCE)) {
+            blocks = blockBuffer = session.getGeyser().getWorldManager().getBlocksAt(session, iter, blockBuffer);
+        }
         if (Math.abs(movementY) > CollisionManager.COLLISION_TOLERANCE) {
-            movementY = computeCollisionOffset(boundingBox, Axis.Y, movementY, iter, checkWorld);
+            movementY = computeCollisionOffset(boundingBox, Axis.Y, movementY, iter, blocks);
             boundingBox.translate(0, movementY, 0);
         }
         boolean checkZFirst = Math.abs(movementZ) > Math.abs(movementX);
         if (checkZFirst && Math.abs(movementZ) > CollisionManager.COLLISION_TOLERANCE) {
-            movementZ = computeCollisionOffset(boundingBox, Axis.Z, movementZ, iter, checkWorld);
+            movementZ = computeCollisionOffset(boundingBox, Axis.Z, movementZ, iter, blocks);
             boundingBox.translate(0, 0, movementZ);
         }
         if (Math.abs(movementX) > CollisionManager.COLLISION_TOLERANCE) {
-            movementX = computeCollisionOffset(boundingBox, Axis.X, movementX, iter, checkWorld);
+            movementX = computeCollisionOffset(boundingBox, Axis.X, movementX, iter, blocks);
             boundingBox.translate(movementX, 0, 0);
         }
         if (!checkZFirst && Math.abs(movementZ) > CollisionManager.COLLISION_TOLERANCE) {
-            movementZ = computeCollisionOffset(boundingBox, Axis.Z, movementZ, iter, checkWorld);
+            movementZ = computeCollisionOffset(boundingBox, Axis.Z, movementZ, iter, blocks);
             boundingBox.translate(0, 0, movementZ);
         }
 
         boundingBox.translate(-movementX, -movementY, -movementZ);
+        if (movementX == movement.getX() && movementY == movement.getY() && movementZ == movement.getZ()) {
+            return movement;
+        }
         return Vector3d.from(movementX, movementY, movementZ);
     }
 
-    private double computeCollisionOffset(BoundingBox boundingBox, Axis axis, double offset, BlockPositionIterator iter, boolean checkWorld) {
+    /**
+     * @param blocks the block states of the iterator's positions, or null if only moving blocks should be checked
+     */
+    private double computeCollisionOffset(BoundingBox boundingBox, Axis axis, double offset, BlockPositionIterator iter, int @Nullable [] blocks) {
+        PistonCache pistonCache = session.getPistonCache();
+        boolean checkPistons = !pistonCache.getMovingBlocksMap().isEmpty();
         for (iter.reset(); iter.hasNext(); iter.next()) {
             int x = iter.getX();
             int y = iter.getY();
             int z = iter.getZ();
-            if (checkWorld) {
-                BlockCollision blockCollision = BlockUtils.getCollisionAt(session, x, y, z);
+            if (blocks != null) {
+                BlockCollision blockCollision = BlockUtils.getCollision(blocks[iter.getIteration()]);
                 if (blockCollision != null && !(blockCollision instanceof ScaffoldingCollision)) {
                     offset = blockCollision.computeCollisionOffset(x, y, z, boundingBox, axis, offset);
                 }
             }
-            offset = session.getPistonCache().computeCollisionOffset(Vector3i.from(x, y, z), boundingBox, axis, offset);
+            if (checkPistons) {
+                offset = pistonCache.computeCollisionOffset(Vector3i.from(x, y, z), boundingBox, axis, offset);
+            }
             if (Math.abs(offset) < COLLISION_TOLERANCE) {
                 return 0;
             }
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2019-2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.network;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import lombok.Getter;
+import org.cloudburstmc.protocol.bedrock.data.PacketCompressionAlgorithm;
+import org.cloudburstmc.protocol.bedrock.netty.codec.compression.BatchCompression;
+import org.cloudburstmc.protocol.bedrock.netty.codec.compression.SnappyCompression;
+import org.cloudburstmc.protocol.bedrock.netty.codec.compression.ZlibCompression;
+import org.cloudburstmc.protocol.common.util.Zlib;
+import org.geysermc.geyser.configuration.GeyserConfiguration;
+import org.geysermc.geyser.session.GeyserSession;
+
+import java.net.InetAddress;
+
+/**
+ * Compresses the packets sent to one Bedrock client, and keeps statistics on how well that works.
+ * <p>
+ * With adaptive compression enabled, clients on one of the configured local networks are sent Snappy compressed packets,
+ * which are larger but much cheaper to compress. For other clients, the zlib level is lowered while the network thread has a backlog of
+ * tasks, and raised back to the configured level once it has caught up.
+ */
+public final class AdaptiveCompression implements BatchCompression {
+    /**
+     * How many batches are compressed between checks of the network thread's backlog.
+     */
+    private static final int BACKLOG_CHECK_INTERVAL = 64;
+    /**
+     * How many tasks may be waiting on the network thread before it is considered to be saturated.
+     */
+    private static final int SATURATED_PENDING_TASKS = 256;
+    private static final int MIN_ZLIB_LEVEL = 1;
+    private static final int DEFAULT_ZLIB_LEVEL = 6;
+
+    private final BatchCompression compression;
+    private final PacketCompressionAlgorithm algorithm;
+    /**
+     * The level to return to once the network thread has caught up, or -1 if the level is never changed.
+     */
+    private final int maxLevel;
+    private int batchesUntilCheck = BACKLOG_CHECK_INTERVAL;
+
+    // Only written from the network thread
+    @Getter
+    private volatile long uncompressedBytes;
+    @Getter
+    private volatile long compressedBytes;
+    @Getter
+    private volatile long compressionNanos;
+
+    private AdaptiveCompression(BatchCompression compression, PacketCompressionAlgorithm algorithm, int maxLevel) {
+        this.compression = compression;
+        this.algorithm = algorithm;
+        this.maxLevel = maxLevel;
+    }
+
+    /**
+     * Chooses how packets to this session should be compressed.
+     */
+    public static AdaptiveCompression forSession(GeyserSession session) {
+        GeyserConfiguration.IBedrockConfiguration config = session.getGeyser().getConfig().getBedrock();
+        int level = config.getCompressionLevel();
+        if (config.isAdaptiveCompression()) {
+            // The proxied address if PROXY protocol is used
+            InetAddress address = session.getUpstream().getAddress().getAddress();
+            for (CIDRMatcher matcher : config.getSnappyCompressionMatchers()) {
+                if (matcher.matches(address)) {
+                    // Bandwidth is rarely a concern on a local network
+                    return new AdaptiveCompression(new SnappyCompression(), PacketCompressionAlgorithm.SNAPPY, -1);
+                }
+            }
+        }
+
+        ZlibCompression compression = new ZlibCompression(Zlib.RAW);
+        compression.setLevel(level);
+        int maxLevel = level == -1 ? DEFAULT_ZLIB_LEVEL : level;
+        boolean adaptive = config.isAdaptiveCompression() && maxLevel > MIN_ZLIB_LEVEL;
+        return new AdaptiveCompression(compression, PacketCompressionAlgorithm.ZLIB, adaptive ? maxLevel : -1);
+    }
+
+    @Override
+    public ByteBuf encode(ChannelHandlerContext ctx, ByteBuf msg) throws Exception {
+        if (maxLevel != -1 && --batchesUntilCheck == 0) {
+            batchesUntilCheck = BACKLOG_CHECK_INTERVAL;
+            adjustLevel(ctx.executor());
+        }
+
+        int uncompressed = msg.readableBytes();
+        long start = System.nanoTime();
+        ByteBuf compressed = compression.encode(ctx, msg);
+        compressionNanos += System.nanoTime() - start;
+        uncompressedBytes += uncompressed;
+        compressedBytes += compressed.readableBytes();
+        return compressed;
+    }
+
+    @Override
+    public ByteBuf decode(ChannelHandlerContext ctx, ByteBuf msg) throws Exception {
+        return compression.decode(ctx, msg);
+    }
+
+    @Override
+    public PacketCompressionAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    @Override
+    public void setLevel(int level) {
+        compression.setLevel(level);
+    }
+
+    @Override
+    public int getLevel() {
+        return compression.getLevel();
+    }
+
+    private void adjustLevel(EventExecutor executor) {
+        if (!(executor instanceof SingleThreadEventExecutor eventLoop)) {
+            return;
+        }
+
+        int pendingTasks = eventLoop.pendingTasks();
+        int level = compression.getLevel();
+        if (level == -1) {
+            level = DEFAULT_ZLIB_LEVEL;
+        }
+        if (pendingTasks >= SATURATED_PENDING_TASKS && level > MIN_ZLIB_LEVEL) {
+            compression.setLevel(level - 1);
+        } else if (pendingTasks < SATURATED_PENDING_TASKS / 4 && level < maxLevel) {
+            compression.setLevel(level + 1);
+        }
+    }
+}
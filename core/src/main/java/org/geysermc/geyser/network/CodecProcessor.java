@@ -34,6 +34,7 @@ import org.cloudburstmc.protocol.bedrock.codec.v291.serializer.MobEquipmentSeria
 import org.cloudburstmc.protocol.bedrock.codec.v291.serializer.PlayerHotbarSerializer_v291;
 import org.cloudburstmc.protocol.bedrock.codec.v291.serializer.SetEntityLinkSerializer_v291;
 import org.cloudburstmc.protocol.bedrock.codec.v291.serializer.SetEntityMotionSerializer_v291;
+import org.cloudburstmc.protocol.bedrock.codec.v361.serializer.ClientCacheBlobStatusSerializer_v361;
 import org.cloudburstmc.protocol.bedrock.codec.v390.serializer.PlayerSkinSerializer_v390;
 import org.cloudburstmc.protocol.bedrock.codec.v407.serializer.InventoryContentSerializer_v407;
 import org.cloudburstmc.protocol.bedrock.codec.v407.serializer.InventorySlotSerializer_v407;
@@ -44,7 +45,6 @@ import org.cloudburstmc.protocol.bedrock.packet.AnvilDamagePacket;
 import org.cloudburstmc.protocol.bedrock.packet.BedrockPacket;
 import org.cloudburstmc.protocol.bedrock.packet.BossEventPacket;
 import org.cloudburstmc.protocol.bedrock.packet.ClientCacheBlobStatusPacket;
-import org.cloudburstmc.protocol.bedrock.packet.ClientCacheStatusPacket;
 import org.cloudburstmc.protocol.bedrock.packet.ClientCheatAbilityPacket;
 import org.cloudburstmc.protocol.bedrock.packet.ClientToServerHandshakePacket;
 import org.cloudburstmc.protocol.bedrock.packet.CodeBuilderSourcePacket;
@@ -79,6 +79,7 @@ import org.cloudburstmc.protocol.bedrock.packet.SimpleEventPacket;
 import org.cloudburstmc.protocol.bedrock.packet.SubChunkRequestPacket;
 import org.cloudburstmc.protocol.bedrock.packet.SubClientLoginPacket;
 import org.cloudburstmc.protocol.bedrock.packet.TickSyncPacket;
+import org.cloudburstmc.protocol.common.util.Preconditions;
 import org.cloudburstmc.protocol.common.util.VarInts;
 
 /**
@@ -208,6 +209,31 @@ class CodecProcessor {
         }
     };
 
+    /**
+     * The maximum amount of blob hashes accepted in one ClientCacheBlobStatusPacket - far more than a chunk batch would ever need.
+     */
+    private static final int MAX_CLIENT_CACHE_BLOB_IDS = 4096;
+
+    /**
+     * Serializer that limits how many blob hashes the client can send in a single ClientCacheBlobStatusPacket.
+     */
+    private static final BedrockPacketSerializer<ClientCacheBlobStatusPacket> CLIENT_CACHE_BLOB_STATUS_SERIALIZER = new ClientCacheBlobStatusSerializer_v361() {
+        @Override
+        public void deserialize(ByteBuf buffer, BedrockCodecHelper helper, ClientCacheBlobStatusPacket packet) {
+            int naksLength = VarInts.readUnsignedInt(buffer);
+            int acksLength = VarInts.readUnsignedInt(buffer);
+            Preconditions.checkArgument(naksLength >= 0 && acksLength >= 0 && naksLength + acksLength <= MAX_CLIENT_CACHE_BLOB_IDS,
+                    "Too many blob IDs in ClientCacheBlobStatusPacket: %s", naksLength + acksLength);
+
+            for (int i = 0; i < naksLength; i++) {
+                packet.getNaks().add(buffer.readLongLE());
+            }
+            for (int i = 0; i < acksLength; i++) {
+                packet.getAcks().add(buffer.readLongLE());
+            }
+        }
+    };
+
     /**
      * Serializer that skips over the item when trying to deserialize MobEquipmentPacket since only the slot info is used.
      */
@@ -238,7 +264,6 @@ class CodecProcessor {
             .updateSerializer(ClientCheatAbilityPacket.class, ILLEGAL_SERIALIZER)
             // Illegal unusued serverbound packets that relate to unused features
             .updateSerializer(PlayerAuthInputPacket.class, ILLEGAL_SERIALIZER)
-            .updateSerializer(ClientCacheBlobStatusPacket.class, ILLEGAL_SERIALIZER)
             .updateSerializer(SubClientLoginPacket.class, ILLEGAL_SERIALIZER)
             .updateSerializer(SubChunkRequestPacket.class, ILLEGAL_SERIALIZER)
             .updateSerializer(GameTestRequestPacket.class, ILLEGAL_SERIALIZER)
@@ -266,12 +291,13 @@ class CodecProcessor {
             .updateSerializer(SetEntityLinkPacket.class, SET_ENTITY_LINK_SERIALIZER)
             // Valid serverbound packets where reading of some fields can be skipped
             .updateSerializer(MobEquipmentPacket.class, MOB_EQUIPMENT_SERIALIZER)
+            // Valid serverbound packets that need additional validation
+            .updateSerializer(ClientCacheBlobStatusPacket.class, CLIENT_CACHE_BLOB_STATUS_SERIALIZER)
             // // Illegal bidirectional packets
             .updateSerializer(DebugInfoPacket.class, ILLEGAL_SERIALIZER)
             .updateSerializer(EditorNetworkPacket.class, ILLEGAL_SERIALIZER)
             .updateSerializer(ScriptMessagePacket.class, ILLEGAL_SERIALIZER)
             // // Ignored bidirectional packets
-            .updateSerializer(ClientCacheStatusPacket.class, IGNORED_SERIALIZER)
             .updateSerializer(SimpleEventPacket.class, IGNORED_SERIALIZER)
             .updateSerializer(TickSyncPacket.class, IGNORED_SERIALIZER)
             .updateSerializer(MultiplayerSettingsPacket.class, IGNORED_SERIALIZER)
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2019-2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.network;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import org.cloudburstmc.protocol.bedrock.codec.BedrockCodec;
+import org.cloudburstmc.protocol.bedrock.codec.BedrockCodecHelper;
+import org.cloudburstmc.protocol.bedrock.packet.BedrockPacket;
+import org.cloudburstmc.protocol.bedrock.packet.UnknownPacket;
+import org.geysermc.geyser.session.GeyserSession;
+
+/**
+ * The serialized body of a Bedrock packet, which can be sent to any session on the protocol version it was encoded for.
+ *
+ * @param packetId the Bedrock packet ID
+ * @param payload the packet body without its header. Read-only and never released
+ */
+public record EncodedPacket(int packetId, ByteBuf payload) {
+
+    /**
+     * Serializes the packet with the codec of the given session.
+     */
+    public static EncodedPacket encode(GeyserSession session, BedrockPacket packet) {
+        BedrockCodec codec = session.getUpstream().getSession().getCodec();
+        BedrockCodecHelper helper = session.getUpstream().getCodecHelper();
+        ByteBuf buffer = Unpooled.buffer();
+        try {
+            codec.tryEncode(helper, buffer, packet);
+            int packetId = codec.getPacketDefinition(packet.getClass()).getId();
+            // Shared by every session, so it must survive being released and must not be written to
+            ByteBuf payload = Unpooled.wrappedBuffer(ByteBufUtil.getBytes(buffer)).asReadOnly();
+            return new EncodedPacket(packetId, Unpooled.unreleasableBuffer(payload));
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Creates a packet that writes this payload as-is.
+     */
+    public BedrockPacket create() {
+        UnknownPacket packet = new UnknownPacket();
+        packet.setPacketId(packetId);
+        // Each send reads the payload, so it gets its own indices
+        packet.setPayload(payload.duplicate());
+        return packet;
+    }
+
+    public int size() {
+        return payload.readableBytes();
+    }
+}
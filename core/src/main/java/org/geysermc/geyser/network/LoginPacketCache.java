@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2019-2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.network;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.cloudburstmc.protocol.bedrock.packet.AvailableEntityIdentifiersPacket;
+import org.cloudburstmc.protocol.bedrock.packet.BedrockPacket;
+import org.cloudburstmc.protocol.bedrock.packet.BiomeDefinitionListPacket;
+import org.cloudburstmc.protocol.bedrock.packet.CreativeContentPacket;
+import org.cloudburstmc.protocol.bedrock.packet.ItemComponentPacket;
+import org.geysermc.geyser.GeyserImpl;
+import org.geysermc.geyser.registry.Registries;
+import org.geysermc.geyser.registry.type.ItemMappings;
+import org.geysermc.geyser.session.GeyserSession;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the large packets that every session receives unchanged while joining, serialized once per protocol version.
+ * Sessions are sent a view of the stored bytes instead of encoding the same NBT and item data again.
+ */
+public final class LoginPacketCache {
+    private static final Map<Integer, Bundle> BUNDLES = new ConcurrentHashMap<>();
+
+    public static @Nullable BedrockPacket itemComponents(GeyserSession session) {
+        EncodedPacket packet = bundle(session).itemComponents();
+        return packet == null ? null : packet.create();
+    }
+
+    public static BedrockPacket biomeDefinitions(GeyserSession session) {
+        return bundle(session).biomeDefinitions().create();
+    }
+
+    public static BedrockPacket entityIdentifiers(GeyserSession session) {
+        return bundle(session).entityIdentifiers().create();
+    }
+
+    public static BedrockPacket creativeContent(GeyserSession session) {
+        return bundle(session).creativeContent().create();
+    }
+
+    private static Bundle bundle(GeyserSession session) {
+        int protocolVersion = session.getUpstream().getProtocolVersion();
+        Bundle bundle = BUNDLES.get(protocolVersion);
+        if (bundle != null && bundle.itemMappings() == session.getItemMappings()) {
+            return bundle;
+        }
+        // Mappings are replaced when custom items are reloaded; anything encoded for the old ones is stale
+        return BUNDLES.compute(protocolVersion, (version, existing) -> {
+            if (existing != null && existing.itemMappings() == session.getItemMappings()) {
+                return existing;
+            }
+            return encodeBundle(session);
+        });
+    }
+
+    private static Bundle encodeBundle(GeyserSession session) {
+        ItemMappings itemMappings = session.getItemMappings();
+
+        EncodedPacket itemComponents = null;
+        if (GeyserImpl.getInstance().getConfig().isAddNonBedrockItems()) {
+            ItemComponentPacket componentPacket = new ItemComponentPacket();
+            componentPacket.getItems().addAll(itemMappings.getComponentItemData());
+            itemComponents = EncodedPacket.encode(session, componentPacket);
+        }
+
+        BiomeDefinitionListPacket biomeDefinitionListPacket = new BiomeDefinitionListPacket();
+        biomeDefinitionListPacket.setDefinitions(Registries.BIOMES_NBT.get());
+
+        AvailableEntityIdentifiersPacket entityPacket = new AvailableEntityIdentifiersPacket();
+        entityPacket.setIdentifiers(Registries.BEDROCK_ENTITY_IDENTIFIERS.get());
+
+        CreativeContentPacket creativePacket = new CreativeContentPacket();
+        creativePacket.setContents(itemMappings.getCreativeItems());
+
+        return new Bundle(itemMappings, itemComponents, EncodedPacket.encode(session, biomeDefinitionListPacket),
+                EncodedPacket.encode(session, entityPacket), EncodedPacket.encode(session, creativePacket));
+    }
+
+    private record Bundle(ItemMappings itemMappings, @Nullable EncodedPacket itemComponents, EncodedPacket biomeDefinitions,
+                          EncodedPacket entityIdentifiers, EncodedPacket creativeContent) {
+    }
+
+    private LoginPacketCache() {
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2019-2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.network;
+
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.Getter;
+import org.geysermc.geyser.GeyserImpl;
+
+import java.net.InetAddress;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs the expensive parts of Bedrock logins - validating the certificate chain and the key agreement of the encryption
+ * handshake - outside of the network threads, so a wave of logins doesn't delay packets of players that are already online.
+ * <p>
+ * Waiting logins are taken from each address in turn, so many logins from one address can't keep others waiting, and
+ * the amount of waiting logins is limited in total and, optionally, per address.
+ */
+public final class LoginVerificationPool {
+    private final int maxQueued;
+    /**
+     * How many logins of one address may wait at once, or 0 for no limit.
+     */
+    private final int maxQueuedPerAddress;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    /**
+     * The waiting logins of each address. Addresses are taken in insertion order and moved to the back once one of their
+     * logins is taken.
+     */
+    private final Map<InetAddress, ArrayDeque<Runnable>> queues = new LinkedHashMap<>();
+    private int queued;
+    private boolean shutdown;
+
+    private final AtomicLong verifications = new AtomicLong();
+    private final AtomicLong verificationNanos = new AtomicLong();
+    @Getter
+    private volatile long rejections;
+
+    public LoginVerificationPool(int threadCount, int maxQueuedPerAddress) {
+        this.maxQueued = threadCount * 64;
+        this.maxQueuedPerAddress = Math.max(0, maxQueuedPerAddress);
+        ThreadFactory threadFactory = new DefaultThreadFactory("Geyser Login Verification Thread", true);
+        for (int i = 0; i < threadCount; i++) {
+            threadFactory.newThread(this::work).start();
+        }
+    }
+
+    /**
+     * Queues the verification of a login.
+     *
+     * @param address the address the login is from
+     * @return false if too many logins are waiting, in which case the task will never run
+     */
+    public boolean submit(InetAddress address, Runnable task) {
+        lock.lock();
+        try {
+            if (shutdown || queued >= maxQueued) {
+                rejections++;
+                return false;
+            }
+
+            ArrayDeque<Runnable> queue = queues.get(address);
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                queues.put(address, queue);
+            } else if (maxQueuedPerAddress > 0 && queue.size() >= maxQueuedPerAddress) {
+                rejections++;
+                return false;
+            }
+
+            long queuedAt = System.nanoTime();
+            queue.add(() -> {
+                task.run();
+                verifications.incrementAndGet();
+                verificationNanos.addAndGet(System.nanoTime() - queuedAt);
+            });
+            queued++;
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return how many logins are waiting to be verified
+     */
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getVerifications() {
+        return verifications.get();
+    }
+
+    /**
+     * @return the average time between a login being queued and its verification finishing, in milliseconds
+     */
+    public double getAverageVerificationMillis() {
+        long count = verifications.get();
+        return count == 0 ? 0 : verificationNanos.get() / 1_000_000d / count;
+    }
+
+    public void shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+            queues.clear();
+            queued = 0;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void work() {
+        while (true) {
+            Runnable task;
+            lock.lock();
+            try {
+                while (queued == 0 && !shutdown) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (shutdown) {
+                    return;
+                }
+
+                Iterator<Map.Entry<InetAddress, ArrayDeque<Runnable>>> iterator = queues.entrySet().iterator();
+                Map.Entry<InetAddress, ArrayDeque<Runnable>> next = iterator.next();
+                iterator.remove();
+                task = next.getValue().poll();
+                if (!next.getValue().isEmpty()) {
+                    // Let every other waiting address go first
+                    queues.put(next.getKey(), next.getValue());
+                }
+                queued--;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                task.run();
+            } catch (Throwable t) {
+                GeyserImpl.getInstance().getLogger().error("Error verifying login", t);
+            }
+        }
+    }
+}
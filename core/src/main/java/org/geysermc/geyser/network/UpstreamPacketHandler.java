@@ -25,17 +25,16 @@
 
 package org.geysermc.geyser.network;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.Unpooled;
 import org.cloudburstmc.protocol.bedrock.BedrockDisconnectReasons;
 import org.cloudburstmc.protocol.bedrock.codec.BedrockCodec;
 import org.cloudburstmc.protocol.bedrock.codec.compat.BedrockCompat;
 import org.cloudburstmc.protocol.bedrock.codec.v622.Bedrock_v622;
 import org.cloudburstmc.protocol.bedrock.data.ExperimentData;
-import org.cloudburstmc.protocol.bedrock.data.PacketCompressionAlgorithm;
 import org.cloudburstmc.protocol.bedrock.data.ResourcePackType;
-import org.cloudburstmc.protocol.bedrock.netty.codec.compression.CompressionStrategy;
 import org.cloudburstmc.protocol.bedrock.netty.codec.compression.SimpleCompressionStrategy;
-import org.cloudburstmc.protocol.bedrock.netty.codec.compression.ZlibCompression;
 import org.cloudburstmc.protocol.bedrock.packet.BedrockPacket;
 import org.cloudburstmc.protocol.bedrock.packet.LoginPacket;
 import org.cloudburstmc.protocol.bedrock.packet.ModalFormResponsePacket;
@@ -51,7 +50,6 @@ import org.cloudburstmc.protocol.bedrock.packet.ResourcePackStackPacket;
 import org.cloudburstmc.protocol.bedrock.packet.ResourcePacksInfoPacket;
 import org.cloudburstmc.protocol.bedrock.packet.SetTitlePacket;
 import org.cloudburstmc.protocol.common.PacketSignal;
-import org.cloudburstmc.protocol.common.util.Zlib;
 import org.geysermc.geyser.Constants;
 import org.geysermc.geyser.GeyserImpl;
 import org.geysermc.geyser.api.network.AuthType;
@@ -60,6 +58,7 @@ import org.geysermc.geyser.api.pack.ResourcePack;
 import org.geysermc.geyser.api.pack.ResourcePackManifest;
 import org.geysermc.geyser.event.type.SessionLoadResourcePacksEventImpl;
 import org.geysermc.geyser.pack.GeyserResourcePack;
+import org.geysermc.geyser.pack.path.GeyserPathPackCodec;
 import org.geysermc.geyser.registry.BlockRegistries;
 import org.geysermc.geyser.registry.Registries;
 import org.geysermc.geyser.session.GeyserSession;
@@ -81,16 +80,11 @@ public class UpstreamPacketHandler extends LoggingPacketHandler {
 
     private boolean networkSettingsRequested = false;
     private final Deque<String> packsToSent = new ArrayDeque<>();
-    private final CompressionStrategy compressionStrategy;
 
     private SessionLoadResourcePacksEventImpl resourcePackLoadEvent;
 
     public UpstreamPacketHandler(GeyserImpl geyser, GeyserSession session) {
         super(geyser, session);
-
-        ZlibCompression compression = new ZlibCompression(Zlib.RAW);
-        compression.setLevel(this.geyser.getConfig().getBedrock().getCompressionLevel());
-        this.compressionStrategy = new SimpleCompressionStrategy(compression);
     }
 
     private PacketSignal translateAndDefault(BedrockPacket packet) {
@@ -152,13 +146,14 @@ public class UpstreamPacketHandler extends LoggingPacketHandler {
         }
 
         // New since 1.19.30 - sent before login packet
-        PacketCompressionAlgorithm algorithm = PacketCompressionAlgorithm.ZLIB;
+        AdaptiveCompression compression = AdaptiveCompression.forSession(session);
+        session.getUpstream().setCompression(compression);
 
         NetworkSettingsPacket responsePacket = new NetworkSettingsPacket();
-        responsePacket.setCompressionAlgorithm(algorithm);
+        responsePacket.setCompressionAlgorithm(compression.getAlgorithm());
         responsePacket.setCompressionThreshold(512);
         session.sendUpstreamPacketImmediately(responsePacket);
-        session.getUpstream().getSession().getPeer().setCompression(compressionStrategy);
+        session.getUpstream().getSession().getPeer().setCompression(new SimpleCompressionStrategy(compression));
 
         networkSettingsRequested = true;
         return PacketSignal.HANDLED;
@@ -181,13 +176,14 @@ public class UpstreamPacketHandler extends LoggingPacketHandler {
         session.setBlockMappings(BlockRegistries.BLOCKS.forVersion(loginPacket.getProtocolVersion()));
         session.setItemMappings(Registries.ITEMS.forVersion(loginPacket.getProtocolVersion()));
 
-        LoginEncryptionUtils.encryptPlayerConnection(session, loginPacket);
-
-        if (session.isClosed()) {
-            // Can happen if Xbox validation fails
-            return PacketSignal.HANDLED;
-        }
+        LoginEncryptionUtils.encryptPlayerConnection(session, loginPacket, this::onLoginEncrypted);
+        return PacketSignal.HANDLED;
+    }
 
+    /**
+     * Continues the login once the player has been verified and the connection is encrypted.
+     */
+    private void onLoginEncrypted() {
         PlayStatusPacket playStatus = new PlayStatusPacket();
         playStatus.setStatus(PlayStatusPacket.Status.LOGIN_SUCCESS);
         session.sendUpstreamPacket(playStatus);
@@ -201,6 +197,10 @@ public class UpstreamPacketHandler extends LoggingPacketHandler {
         for (ResourcePack pack : this.resourcePackLoadEvent.resourcePacks()) {
             PackCodec codec = pack.codec();
             ResourcePackManifest.Header header = pack.manifest().header();
+            if (codec instanceof GeyserPathPackCodec pathCodec && Registries.RESOURCE_PACKS.get().get(header.uuid().toString()) != pack) {
+                // Packs added by extensions for this session are not checked for changes periodically
+                pathCodec.checkLastModified();
+            }
             resourcePacksInfo.getResourcePackInfos().add(new ResourcePacksInfoPacket.Entry(
                     header.uuid().toString(), header.version().toString(), codec.size(), pack.contentKey(),
                     "", header.uuid().toString(), false, false));
@@ -209,7 +209,6 @@ public class UpstreamPacketHandler extends LoggingPacketHandler {
         session.sendUpstreamPacket(resourcePacksInfo);
 
         GeyserLocale.loadGeyserLocale(session.locale());
-        return PacketSignal.HANDLED;
     }
 
     @Override
@@ -313,16 +312,9 @@ public class UpstreamPacketHandler extends LoggingPacketHandler {
 
         int offset = packet.getChunkIndex() * GeyserResourcePack.CHUNK_SIZE;
         long remainingSize = codec.size() - offset;
-        byte[] packData = new byte[(int) MathUtils.constrain(remainingSize, 0, GeyserResourcePack.CHUNK_SIZE)];
-
-        try (SeekableByteChannel channel = codec.serialize(pack)) {
-            channel.position(offset);
-            channel.read(ByteBuffer.wrap(packData, 0, packData.length));
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        int length = (int) MathUtils.constrain(remainingSize, 0, GeyserResourcePack.CHUNK_SIZE);
 
-        data.setData(Unpooled.wrappedBuffer(packData));
+        data.setData(readPackChunk(pack, offset, length));
 
         session.sendUpstreamPacket(data);
 
@@ -334,6 +326,29 @@ public class UpstreamPacketHandler extends LoggingPacketHandler {
         return PacketSignal.HANDLED;
     }
 
+    private ByteBuf readPackChunk(ResourcePack pack, int offset, int length) {
+        if (pack.codec() instanceof GeyserPathPackCodec pathCodec) {
+            ByteBuf packData = ByteBufAllocator.DEFAULT.ioBuffer(length);
+            try {
+                // Read through the file kept open for every session downloading this pack
+                pathCodec.read(packData, offset);
+                return packData;
+            } catch (IOException e) {
+                packData.release();
+                geyser.getLogger().debug("Could not read resource pack " + pathCodec.path() + ": " + e);
+            }
+        }
+
+        byte[] packData = new byte[length];
+        try (SeekableByteChannel channel = pack.codec().serialize(pack)) {
+            channel.position(offset);
+            channel.read(ByteBuffer.wrap(packData, 0, packData.length));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return Unpooled.wrappedBuffer(packData);
+    }
+
     private void sendPackDataInfo(String id) {
         ResourcePackDataInfoPacket data = new ResourcePackDataInfoPacket();
         String[] packID = id.split("_");
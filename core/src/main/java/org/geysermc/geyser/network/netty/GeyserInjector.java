@@ -26,8 +26,11 @@
 package org.geysermc.geyser.network.netty;
 
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelPipeline;
 import lombok.Getter;
 import org.geysermc.geyser.GeyserBootstrap;
+import org.geysermc.geyser.configuration.GeyserConfiguration;
+import org.geysermc.geyser.network.netty.handler.UnframedPacketHandler;
 
 import java.net.SocketAddress;
 
@@ -45,6 +48,12 @@ public abstract class GeyserInjector {
      */
     @Getter
     protected SocketAddress serverSocketAddress;
+    /**
+     * Whether the local channel skips the length prefix. Decided once when the local channel is set up, as the
+     * channel is not set up again when the config is reloaded.
+     */
+    @Getter
+    protected boolean framingDisabled;
 
     /**
      * @param bootstrap the bootstrap of the Geyser instance.
@@ -61,6 +70,7 @@ public abstract class GeyserInjector {
         }
 
         try {
+            this.framingDisabled = isFramingDisabled(bootstrap.getGeyserConfig());
             initializeLocalChannel0(bootstrap);
             bootstrap.getGeyserLogger().debug("Local injection succeeded!");
         } catch (Exception e) {
@@ -75,7 +85,29 @@ public abstract class GeyserInjector {
      */
     protected abstract void initializeLocalChannel0(GeyserBootstrap bootstrap) throws Exception;
 
+    /**
+     * @return whether Java packets sent over the local channel should skip the length prefix. Requires compression
+     * to be disabled, as some platforms merge the length prefix into their compression handler.
+     */
+    private static boolean isFramingDisabled(GeyserConfiguration config) {
+        return config.isUseDirectConnection() && config.isDisableCompression() && config.isDirectConnectionPassthrough();
+    }
+
+    /**
+     * Swaps out the server's length prefix handlers for ones that pass packets through untouched. Must be called
+     * after the server has set up the pipeline of the channel.
+     *
+     * @param pipeline the pipeline of the server end of the local channel
+     * @param decoderName the name of the server's frame decoder
+     * @param encoderName the name of the server's frame encoder
+     */
+    protected static void disableFraming(ChannelPipeline pipeline, String decoderName, String encoderName) {
+        pipeline.replace(decoderName, decoderName, UnframedPacketHandler.INSTANCE);
+        pipeline.replace(encoderName, encoderName, UnframedPacketHandler.INSTANCE);
+    }
+
     public void shutdown() {
+        framingDisabled = false;
         if (localChannel != null && localChannel.channel().isOpen()) {
             try {
                 localChannel.channel().close().sync();
@@ -26,6 +26,8 @@
 package org.geysermc.geyser.network.netty;
 
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.EventLoopGroup;
@@ -45,6 +47,7 @@ import io.netty.util.concurrent.Future;
 import lombok.Getter;
 import net.jodah.expiringmap.ExpirationPolicy;
 import net.jodah.expiringmap.ExpiringMap;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.cloudburstmc.netty.channel.raknet.RakChannelFactory;
 import org.cloudburstmc.netty.channel.raknet.config.RakChannelOption;
 import org.cloudburstmc.netty.handler.codec.raknet.server.RakServerOfflineHandler;
@@ -52,6 +55,7 @@ import org.cloudburstmc.netty.handler.codec.raknet.server.RakServerRateLimiter;
 import org.cloudburstmc.protocol.bedrock.BedrockPong;
 import org.geysermc.geyser.GeyserImpl;
 import org.geysermc.geyser.api.event.connection.ConnectionRequestEvent;
+import org.geysermc.geyser.api.event.connection.GeyserBedrockPingEvent;
 import org.geysermc.geyser.command.defaults.ConnectionTestCommand;
 import org.geysermc.geyser.configuration.GeyserConfiguration;
 import org.geysermc.geyser.event.type.GeyserBedrockPingEventImpl;
@@ -70,6 +74,7 @@ import org.geysermc.geyser.translator.text.MessageTranslator;
 import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.IntFunction;
@@ -121,6 +126,15 @@ public final class GeyserServer {
      */
     private final int broadcastPort;
 
+    /**
+     * The last pong sent to clients, which is reused until what it was built from changes.
+     */
+    private volatile @Nullable PongSnapshot pongSnapshot;
+    /**
+     * The minimum time between two rebuilds of the pong.
+     */
+    private final long pongRebuildIntervalNanos;
+
     public GeyserServer(GeyserImpl geyser, int threadCount) {
         this.geyser = geyser;
         this.listenCount = Bootstraps.isReusePortAvailable() ?  Integer.getInteger("Geyser.ListenCount", 2) : 1;
@@ -149,6 +163,7 @@ public final class GeyserServer {
         }
 
         this.broadcastPort = geyser.getConfig().getBedrock().broadcastPort();
+        this.pongRebuildIntervalNanos = TimeUnit.MILLISECONDS.toNanos(positivePropOrDefault("Geyser.PongRebuildIntervalMillis", 250));
     }
 
     public CompletableFuture<Void> bind(InetSocketAddress address) {
@@ -286,7 +301,13 @@ public final class GeyserServer {
         return true;
     }
 
-    public BedrockPong onQuery(Channel channel, InetSocketAddress inetSocketAddress) {
+    /**
+     * Returns the encoded pong to reply to a ping with.
+     * <p>
+     * Unless an extension listens to {@link GeyserBedrockPingEvent}, the pong does not depend on who pinged,
+     * so it is only rebuilt when what it is built from changes, and at most once per {@link #pongRebuildIntervalNanos}.
+     */
+    public ByteBuf onQuery(Channel channel, InetSocketAddress inetSocketAddress) {
         if (geyser.getConfig().isDebugMode() && PRINT_DEBUG_PINGS) {
             String ip;
             if (geyser.getConfig().isLogPlayerIpAddresses()) {
@@ -311,6 +332,36 @@ public final class GeyserServer {
             }
         }
 
+        long serverId = channel.config().getOption(RakChannelOption.RAK_GUID);
+        boolean passthroughPlayerCount = config.isPassthroughPlayerCounts() && pingInfo != null;
+        int sessionCount = passthroughPlayerCount ? 0 : geyser.getSessionManager().getSessions().size();
+        String connectionTestMotd = ConnectionTestCommand.CONNECTION_TEST_MOTD;
+
+        if (!geyser.eventBus().subscribers(GeyserBedrockPingEvent.class).isEmpty()) {
+            // Extensions can change the pong depending on who pinged
+            return buildPong(pingInfo, serverId, sessionCount, connectionTestMotd, inetSocketAddress).toByteBuf();
+        }
+
+        PongSnapshot snapshot = this.pongSnapshot;
+        long now = System.nanoTime();
+        if (snapshot == null || (!snapshot.isBuiltFrom(pingInfo, serverId, sessionCount, connectionTestMotd)
+                && now - snapshot.builtAt() >= pongRebuildIntervalNanos)) {
+            BedrockPong pong = buildPong(pingInfo, serverId, sessionCount, connectionTestMotd, null);
+            // Shared by every reply, so it must survive being released and must not be written to
+            ByteBuf encoded = Unpooled.unreleasableBuffer(pong.toByteBuf().asReadOnly());
+            snapshot = new PongSnapshot(pingInfo, serverId, sessionCount, connectionTestMotd, now, encoded);
+            this.pongSnapshot = snapshot;
+        }
+        return snapshot.encoded().duplicate();
+    }
+
+    /**
+     * @param inetSocketAddress the address that pinged, or null if the pong is shared between everyone pinging
+     */
+    private BedrockPong buildPong(@Nullable GeyserPingInfo pingInfo, long serverId, int sessionCount, @Nullable String connectionTestMotd,
+                                  @Nullable InetSocketAddress inetSocketAddress) {
+        GeyserConfiguration config = geyser.getConfig();
+
         BedrockPong pong = new BedrockPong()
                 .edition("MCPE")
                 .gameType("Survival") // Can only be Survival or Creative as of 1.16.210.59
@@ -319,7 +370,7 @@ public final class GeyserServer {
                 .version(GameProtocol.DEFAULT_BEDROCK_CODEC.getMinecraftVersion()) // Required to not be empty as of 1.16.210.59. Can only contain . and numbers.
                 .ipv4Port(this.broadcastPort)
                 .ipv6Port(this.broadcastPort)
-                .serverId(channel.config().getOption(RakChannelOption.RAK_GUID));
+                .serverId(serverId);
 
         if (config.isPassthroughMotd() && pingInfo != null && pingInfo.getDescription() != null) {
             String[] motd = MessageTranslator.convertMessageLenient(pingInfo.getDescription()).split("\n");
@@ -338,11 +389,13 @@ public final class GeyserServer {
             pong.playerCount(pingInfo.getPlayers().getOnline());
             pong.maximumPlayerCount(pingInfo.getPlayers().getMax());
         } else {
-            pong.playerCount(geyser.getSessionManager().getSessions().size());
+            pong.playerCount(sessionCount);
             pong.maximumPlayerCount(config.getMaxPlayers());
         }
 
-        this.geyser.eventBus().fire(new GeyserBedrockPingEventImpl(pong, inetSocketAddress));
+        if (inetSocketAddress != null) {
+            this.geyser.eventBus().fire(new GeyserBedrockPingEventImpl(pong, inetSocketAddress));
+        }
 
         // https://github.com/GeyserMC/Geyser/issues/3388
         pong.motd(pong.motd().replace(';', ':'));
@@ -357,9 +410,9 @@ public final class GeyserServer {
             pong.subMotd(GeyserImpl.NAME);
         }
 
-        if (ConnectionTestCommand.CONNECTION_TEST_MOTD != null) {
+        if (connectionTestMotd != null) {
             // Force-override as we are testing the connection and want to verify we are connecting to the right server through the MOTD
-            pong.motd(ConnectionTestCommand.CONNECTION_TEST_MOTD);
+            pong.motd(connectionTestMotd);
             pong.subMotd(GeyserImpl.NAME);
         }
 
@@ -390,6 +443,21 @@ public final class GeyserServer {
         return pong;
     }
 
+    /**
+     * A pong along with everything it was built from.
+     *
+     * @param pingInfo the ping passthrough information, compared by identity as passthroughs reuse it until it is refreshed
+     * @param encoded the encoded pong. Read-only and never released
+     */
+    private record PongSnapshot(@Nullable GeyserPingInfo pingInfo, long serverId, int sessionCount, @Nullable String connectionTestMotd,
+                                long builtAt, ByteBuf encoded) {
+
+        boolean isBuiltFrom(@Nullable GeyserPingInfo pingInfo, long serverId, int sessionCount, @Nullable String connectionTestMotd) {
+            return this.pingInfo == pingInfo && this.serverId == serverId && this.sessionCount == sessionCount
+                    && Objects.equals(this.connectionTestMotd, connectionTestMotd);
+        }
+    }
+
     /**
      * @return the throwable from the given supplier, or the throwable caught while calling the supplier.
      */
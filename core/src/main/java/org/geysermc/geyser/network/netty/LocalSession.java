@@ -38,6 +38,7 @@ import io.netty.channel.*;
 import io.netty.channel.unix.PreferredDirectByteBufAllocator;
 import io.netty.handler.codec.haproxy.*;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.geysermc.geyser.network.netty.handler.UnframedPacketHandler;
 
 import java.net.Inet4Address;
 import java.net.InetSocketAddress;
@@ -53,12 +54,21 @@ public final class LocalSession extends TcpSession {
     private final SocketAddress targetAddress;
     private final String clientIp;
     private final PacketCodecHelper codecHelper;
+    /**
+     * Whether packets are sent with a length prefix. See {@link UnframedPacketHandler}.
+     */
+    private final boolean framed;
 
     public LocalSession(String host, int port, SocketAddress targetAddress, String clientIp, PacketProtocol protocol, MinecraftCodecHelper codecHelper) {
+        this(host, port, targetAddress, clientIp, protocol, codecHelper, true);
+    }
+
+    public LocalSession(String host, int port, SocketAddress targetAddress, String clientIp, PacketProtocol protocol, MinecraftCodecHelper codecHelper, boolean framed) {
         super(host, port, protocol);
         this.targetAddress = targetAddress;
         this.clientIp = clientIp;
         this.codecHelper = codecHelper;
+        this.framed = framed;
     }
 
     @Override
@@ -85,7 +95,11 @@ public final class LocalSession extends TcpSession {
                     refreshWriteTimeoutHandler(channel);
 
                     ChannelPipeline pipeline = channel.pipeline();
-                    pipeline.addLast("sizer", new TcpPacketSizer(LocalSession.this, protocol.getPacketHeader().getLengthSize()));
+                    if (framed) {
+                        pipeline.addLast("sizer", new TcpPacketSizer(LocalSession.this, protocol.getPacketHeader().getLengthSize()));
+                    } else {
+                        pipeline.addLast("sizer", UnframedPacketHandler.INSTANCE);
+                    }
                     pipeline.addLast("codec", new TcpPacketCodec(LocalSession.this, true));
                     pipeline.addLast("manager", LocalSession.this);
 
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2019-2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.pack;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.geysermc.geyser.GeyserImpl;
+import org.geysermc.geyser.pack.path.GeyserPathPackCodec;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the SHA-256 hash of resource pack files between restarts, so packs that have not changed since the
+ * last start do not need to be read again to be hashed. A pack is assumed unchanged if its path, size and last
+ * modified time are the same.
+ */
+public final class PackHashIndex {
+    private final Path file;
+    private final Map<String, Entry> previous;
+    private final Map<String, Entry> current = new ConcurrentHashMap<>();
+
+    private PackHashIndex(Path file, Map<String, Entry> previous) {
+        this.file = file;
+        this.previous = previous;
+    }
+
+    /**
+     * Loads the index from the given file. A missing or unreadable index is treated as empty.
+     */
+    public static PackHashIndex load(Path file) {
+        Map<String, Entry> entries = new HashMap<>();
+        if (Files.exists(file)) {
+            try {
+                JsonNode root = GeyserImpl.JSON_MAPPER.readTree(file.toFile());
+                Iterator<Map.Entry<String, JsonNode>> fields = root.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    JsonNode node = field.getValue();
+                    entries.put(field.getKey(), new Entry(node.get("size").asLong(), node.get("last_modified").asLong(),
+                            HexFormat.of().parseHex(node.get("sha256").asText())));
+                }
+            } catch (Exception e) {
+                GeyserImpl.getInstance().getLogger().debug("Could not read resource pack hash index, all packs will be hashed: " + e);
+                entries.clear();
+            }
+        }
+        return new PackHashIndex(file, entries);
+    }
+
+    /**
+     * Makes sure the hash of the pack is known, taking it from the index if the file has not changed and hashing
+     * the file otherwise. Safe to call from several threads at once.
+     */
+    public void hash(GeyserPathPackCodec codec) throws IOException {
+        Path path = codec.path();
+        String key = path.toAbsolutePath().normalize().toString();
+        long size = Files.size(path);
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+
+        Entry entry = previous.get(key);
+        if (entry != null && entry.size() == size && entry.lastModified() == lastModified) {
+            codec.preloadSha256(entry.sha256());
+        } else {
+            entry = new Entry(size, lastModified, codec.sha256());
+        }
+        current.put(key, entry);
+    }
+
+    /**
+     * Writes the hashes of every pack passed to {@link #hash(GeyserPathPackCodec)}, dropping packs that were not.
+     */
+    public void save() {
+        if (current.equals(previous)) {
+            return;
+        }
+
+        ObjectNode root = GeyserImpl.JSON_MAPPER.createObjectNode();
+        for (Map.Entry<String, Entry> entry : current.entrySet()) {
+            ObjectNode node = root.putObject(entry.getKey());
+            node.put("size", entry.getValue().size());
+            node.put("last_modified", entry.getValue().lastModified());
+            node.put("sha256", HexFormat.of().formatHex(entry.getValue().sha256()));
+        }
+
+        try {
+            Files.createDirectories(file.getParent());
+            // Written next to the index first, so a crash while writing cannot leave a broken index behind
+            Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            GeyserImpl.JSON_MAPPER.writeValue(temporary.toFile(), root);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            GeyserImpl.getInstance().getLogger().debug("Could not save resource pack hash index: " + e);
+        }
+    }
+
+    private record Entry(long size, long lastModified, byte[] sha256) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Entry other && size == other.size && lastModified == other.lastModified
+                    && Arrays.equals(sha256, other.sha256);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * Long.hashCode(size) + Long.hashCode(lastModified)) + Arrays.hashCode(sha256);
+        }
+    }
+}
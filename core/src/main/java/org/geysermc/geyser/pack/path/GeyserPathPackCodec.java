@@ -25,7 +25,7 @@
 
 package org.geysermc.geyser.pack.path;
 
-import lombok.RequiredArgsConstructor;
+import io.netty.buffer.ByteBuf;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.geysermc.geyser.GeyserImpl;
 import org.geysermc.geyser.api.pack.PathPackCodec;
@@ -40,35 +40,55 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.FileTime;
 
-@RequiredArgsConstructor
 public class GeyserPathPackCodec extends PathPackCodec {
     private final Path path;
-    private FileTime lastModified;
+    private volatile FileTime lastModified;
 
-    private byte[] sha256;
-    private long size = -1;
+    private volatile byte[] sha256;
+    private volatile long size = -1;
+    /**
+     * The pack file kept open for every session downloading it. Null until first needed.
+     */
+    private volatile FileChannel channel;
+
+    public GeyserPathPackCodec(Path path) {
+        this.path = path;
+        try {
+            this.lastModified = Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            // Recorded on the first check instead
+        }
+    }
 
     @Override
     public @NonNull Path path() {
-        this.checkLastModified();
         return this.path;
     }
 
     @Override
     public byte @NonNull [] sha256() {
-        this.checkLastModified();
-        if (this.sha256 != null) {
-            return this.sha256;
+        byte[] sha256 = this.sha256;
+        if (sha256 != null) {
+            return sha256;
         }
 
         return this.sha256 = FileUtils.calculateSHA256(this.path);
     }
 
+    /**
+     * Uses a hash computed earlier for the current contents of the file, instead of reading the file to compute it.
+     *
+     * @param sha256 the SHA-256 hash of the file
+     */
+    public void preloadSha256(byte @NonNull [] sha256) {
+        this.sha256 = sha256;
+    }
+
     @Override
     public long size() {
-        this.checkLastModified();
-        if (this.size != -1) {
-            return this.size;
+        long size = this.size;
+        if (size != -1) {
+            return size;
         }
 
         try {
@@ -83,12 +103,47 @@ public class GeyserPathPackCodec extends PathPackCodec {
         return FileChannel.open(this.path);
     }
 
+    /**
+     * Reads part of the pack file into the buffer. The file is opened the first time this is called, and kept open
+     * for any number of sessions reading from it at once.
+     *
+     * @param buffer the buffer to fill, up to its writable bytes
+     * @param position the position in the file to start reading from
+     * @return how many bytes were read, which is less than requested if the file is shorter
+     * @throws IOException if the file could not be read
+     */
+    public int read(@NonNull ByteBuf buffer, long position) throws IOException {
+        FileChannel channel = this.channel;
+        if (channel == null) {
+            synchronized (this) {
+                if (this.channel == null) {
+                    this.channel = FileChannel.open(this.path);
+                }
+                channel = this.channel;
+            }
+        }
+
+        int read = 0;
+        while (buffer.isWritable()) {
+            int bytes = buffer.writeBytes(channel, position + read, buffer.writableBytes());
+            if (bytes <= 0) {
+                break;
+            }
+            read += bytes;
+        }
+        return read;
+    }
+
     @Override
     protected @NonNull ResourcePack create() {
         return ResourcePackLoader.readPack(this.path);
     }
 
-    private void checkLastModified() {
+    /**
+     * Checks if the pack file has been modified since it was loaded, and warns if so. This is called periodically
+     * by Geyser rather than every time the pack is sent.
+     */
+    public void checkLastModified() {
         try {
             FileTime lastModified = Files.getLastModifiedTime(this.path);
             if (this.lastModified == null) {
@@ -101,9 +156,24 @@ public class GeyserPathPackCodec extends PathPackCodec {
                 this.lastModified = lastModified;
                 this.sha256 = null;
                 this.size = -1;
+                closeChannel();
             }
         } catch (IOException e) {
-            throw new RuntimeException(e);
+            GeyserImpl.getInstance().getLogger().debug("Could not check resource pack " + path + " for changes: " + e);
+        }
+    }
+
+    private synchronized void closeChannel() {
+        FileChannel channel = this.channel;
+        if (channel == null) {
+            return;
+        }
+        this.channel = null;
+        try {
+            // Sessions still reading from it fall back to opening the file themselves
+            channel.close();
+        } catch (IOException e) {
+            GeyserImpl.getInstance().getLogger().debug("Could not close resource pack " + path + ": " + e);
         }
     }
 }
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2019-2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.ping;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.geysermc.geyser.GeyserImpl;
+import org.geysermc.geyser.GeyserLogger;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Answers pings from the last result of a platform's ping passthrough, so a ping never waits on the platform firing
+ * its ping event. Once the result is older than the ping passthrough interval, the next ping starts a refresh in the
+ * background; pings arriving during that refresh share it and are answered with the previous result.
+ * <p>
+ * The refresh is made on behalf of whichever client pinged when the result went stale, so plugins that change
+ * the ping per address will see one address per interval.
+ */
+public final class CachedPingPassthrough implements IGeyserPingPassthrough {
+    /**
+     * How long a refresh may take before it is given up on, so a lost event does not stop all later refreshes.
+     */
+    private static final long REFRESH_TIMEOUT_SECONDS = 5;
+
+    private final IGeyserPingPassthrough delegate;
+    private final Executor executor;
+    private final GeyserLogger logger;
+    private final long refreshIntervalNanos;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private volatile @Nullable GeyserPingInfo pingInfo;
+    /**
+     * When {@link #pingInfo} was last set, from {@link System#nanoTime()}. Only meaningful if {@link #refreshed} is true.
+     */
+    private volatile long refreshedAt;
+    private volatile boolean refreshed;
+
+    private CachedPingPassthrough(IGeyserPingPassthrough delegate, Executor executor, GeyserLogger logger, long refreshIntervalNanos) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.logger = logger;
+        this.refreshIntervalNanos = refreshIntervalNanos;
+    }
+
+    /**
+     * Wraps a platform ping passthrough and starts loading its information, so it is ready before the first ping.
+     *
+     * @param geyser Geyser
+     * @param delegate the platform ping passthrough
+     * @return the cached ping passthrough
+     */
+    public static IGeyserPingPassthrough wrap(GeyserImpl geyser, IGeyserPingPassthrough delegate) {
+        // Ensure delay is not zero
+        int interval = Math.max(1, geyser.getConfig().getPingPassthroughInterval());
+        CachedPingPassthrough pingPassthrough = new CachedPingPassthrough(delegate, geyser.getScheduledThread(),
+                geyser.getLogger(), TimeUnit.SECONDS.toNanos(interval));
+        pingPassthrough.refresh(new InetSocketAddress(0));
+        return pingPassthrough;
+    }
+
+    @Override
+    public @Nullable GeyserPingInfo getPingInformation(InetSocketAddress inetSocketAddress) {
+        if (!refreshed || System.nanoTime() - refreshedAt >= refreshIntervalNanos) {
+            refresh(inetSocketAddress);
+        }
+        return pingInfo;
+    }
+
+    private void refresh(InetSocketAddress inetSocketAddress) {
+        if (!refreshing.compareAndSet(false, true)) {
+            // Someone else is already refreshing
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    delegate.getPingInformationAsync(inetSocketAddress)
+                            .orTimeout(REFRESH_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                            .whenComplete((info, throwable) -> {
+                                if (throwable != null) {
+                                    // Keep the last known value
+                                    logger.debug("Error while refreshing ping passthrough: " + throwable);
+                                } else {
+                                    this.pingInfo = info;
+                                }
+                                finishRefresh();
+                            });
+                } catch (Throwable t) {
+                    logger.debug("Error while refreshing ping passthrough: " + t);
+                    finishRefresh();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Geyser is shutting down
+            refreshing.set(false);
+        }
+    }
+
+    private void finishRefresh() {
+        this.refreshedAt = System.nanoTime();
+        this.refreshed = true;
+        refreshing.set(false);
+    }
+}
@@ -27,6 +27,7 @@ package org.geysermc.geyser.ping;
 
 import org.checkerframework.checker.nullness.qual.Nullable;
 import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Interface that retrieves ping passthrough information from the Java server
@@ -42,4 +43,15 @@ public interface IGeyserPingPassthrough {
     @Nullable
     GeyserPingInfo getPingInformation(InetSocketAddress inetSocketAddress);
 
+    /**
+     * Get the ping information without waiting on it. Platforms that fire their ping event asynchronously should
+     * override this so the calling thread is not blocked.
+     *
+     * @param inetSocketAddress the ip address of the client pinging the server
+     * @return a future completed with the ping information, which may be null
+     */
+    default CompletableFuture<@Nullable GeyserPingInfo> getPingInformationAsync(InetSocketAddress inetSocketAddress) {
+        return CompletableFuture.completedFuture(getPingInformation(inetSocketAddress));
+    }
+
 }
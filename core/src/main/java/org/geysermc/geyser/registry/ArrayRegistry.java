@@ -58,7 +58,7 @@ public class ArrayRegistry<M> extends Registry<M[]> {
      */
     @Nullable
     public M get(int index) {
-        if (index >= this.mappings.length) {
+        if (index < 0 || index >= this.mappings.length) {
             return null;
         }
 
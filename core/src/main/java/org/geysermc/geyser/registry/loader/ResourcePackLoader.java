@@ -30,8 +30,10 @@ import org.geysermc.geyser.api.event.lifecycle.GeyserLoadResourcePacksEvent;
 import org.geysermc.geyser.api.pack.ResourcePack;
 import org.geysermc.geyser.pack.GeyserResourcePack;
 import org.geysermc.geyser.pack.GeyserResourcePackManifest;
+import org.geysermc.geyser.pack.PackHashIndex;
 import org.geysermc.geyser.pack.SkullResourcePackManager;
 import org.geysermc.geyser.pack.path.GeyserPathPackCodec;
+import org.geysermc.geyser.registry.Registries;
 import org.geysermc.geyser.text.GeyserLocale;
 import org.geysermc.geyser.util.FileUtils;
 
@@ -45,6 +47,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -58,6 +61,10 @@ public class ResourcePackLoader implements RegistryLoader<Path, Map<String, Reso
 
     static final PathMatcher PACK_MATCHER = FileSystems.getDefault().getPathMatcher("glob:**.{zip,mcpack}");
 
+    private static final long CHANGE_CHECK_INTERVAL_SECONDS = 10;
+
+    private static final String HASH_INDEX_FILE = "resource_pack_hashes.json";
+
     private static final boolean SHOW_RESOURCE_PACK_LENGTH_WARNING = Boolean.parseBoolean(System.getProperty("Geyser.ShowResourcePackLengthWarning", "true"));
 
     /**
@@ -97,17 +104,49 @@ public class ResourcePackLoader implements RegistryLoader<Path, Map<String, Reso
         GeyserLoadResourcePacksEvent event = new GeyserLoadResourcePacksEvent(resourcePacks);
         GeyserImpl.getInstance().eventBus().fire(event);
 
-        for (Path path : event.resourcePacks()) {
-            try {
-                GeyserResourcePack pack = readPack(path);
+        PackHashIndex hashIndex = PackHashIndex.load(GeyserImpl.getInstance().getBootstrap().getConfigFolder()
+                .resolve("cache").resolve(HASH_INDEX_FILE));
+
+        // Packs are read and hashed in parallel, so that hashing does not happen later when the first player joins
+        List<GeyserResourcePack> packs = event.resourcePacks().parallelStream()
+                .map(path -> {
+                    try {
+                        GeyserResourcePack pack = readPack(path);
+                        if (pack.codec() instanceof GeyserPathPackCodec codec) {
+                            hashIndex.hash(codec);
+                        }
+                        return pack;
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                        return null;
+                    }
+                })
+                .toList();
+        hashIndex.save();
+
+        // Added in the original order, so the last of several packs with the same UUID still wins
+        for (GeyserResourcePack pack : packs) {
+            if (pack != null) {
                 packMap.put(pack.manifest().header().uuid().toString(), pack);
-            } catch (Exception e) {
-                e.printStackTrace();
             }
         }
         return packMap;
     }
 
+    /**
+     * Periodically checks the loaded resource packs for changes to their files, instead of checking every time
+     * a pack is sent to a client.
+     */
+    public static void registerChangeCheckTask(GeyserImpl geyser) {
+        geyser.getScheduledThread().scheduleWithFixedDelay(() -> {
+            for (ResourcePack pack : Registries.RESOURCE_PACKS.get().values()) {
+                if (pack.codec() instanceof GeyserPathPackCodec codec) {
+                    codec.checkLastModified();
+                }
+            }
+        }, CHANGE_CHECK_INTERVAL_SECONDS, CHANGE_CHECK_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
     /**
      * Reads a resource pack at the given file. Also searches for a file in the same directory, with the same name
      * but suffixed by ".key", containing the content key. If such file does not exist, no content key is stored.
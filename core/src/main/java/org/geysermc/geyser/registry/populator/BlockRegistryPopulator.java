@@ -358,6 +358,22 @@ public final class BlockRegistryPopulator {
                 }
             }
 
+            BitSet waterloggedStates = BlockRegistries.WATERLOGGED.get();
+            byte[] javaBlockStateFlags = new byte[JAVA_BLOCKS_SIZE];
+            for (int i = 0; i < javaBlockStateFlags.length; i++) {
+                int flags = 0;
+                if (waterloggedStates.get(i)) {
+                    flags |= BlockMappings.FLAG_WATERLOGGED;
+                }
+                if (BlockStateValues.hasBedrockOnlyBlockEntity(i)) {
+                    flags |= BlockMappings.FLAG_BEDROCK_ONLY_BLOCK_ENTITY;
+                }
+                if (extendedCollisionBoxes.containsKey(i)) {
+                    flags |= BlockMappings.FLAG_EXTENDED_COLLISION;
+                }
+                javaBlockStateFlags[i] = (byte) flags;
+            }
+
             // Loop around again to find all item frame runtime IDs
             Object2ObjectMaps.fastForEach(blockStateOrderedMap, entry -> {
                 String name = entry.getKey().getString("name");
@@ -378,6 +394,7 @@ public final class BlockRegistryPopulator {
                     .blockProperties(customBlockProperties)
                     .customBlockStateDefinitions(customBlockStateDefinitions)
                     .extendedCollisionBoxes(extendedCollisionBoxes)
+                    .javaBlockStateFlags(javaBlockStateFlags)
                     .build());
         }
     }
@@ -43,6 +43,19 @@ import java.util.Set;
 @Builder
 @Value
 public class BlockMappings implements DefinitionRegistry<GeyserBedrockBlock> {
+    /**
+     * The Java block state is waterlogged, and needs water on the second Bedrock block layer.
+     */
+    public static final int FLAG_WATERLOGGED = 1;
+    /**
+     * The Java block state needs a block entity that only exists on Bedrock.
+     */
+    public static final int FLAG_BEDROCK_ONLY_BLOCK_ENTITY = 1 << 1;
+    /**
+     * The Java block state has a custom block with an extended collision box.
+     */
+    public static final int FLAG_EXTENDED_COLLISION = 1 << 2;
+
     GeyserBedrockBlock bedrockAir;
     BlockDefinition bedrockWater;
     BlockDefinition bedrockMovingBlock;
@@ -66,6 +79,10 @@ public class BlockMappings implements DefinitionRegistry<GeyserBedrockBlock> {
     List<BlockPropertyData> blockProperties;
     Object2ObjectMap<CustomBlockState, GeyserBedrockBlock> customBlockStateDefinitions;
     Int2ObjectMap<GeyserBedrockBlock> extendedCollisionBoxes;
+    /**
+     * The flags of each Java block state, so the chunk translator can check them all with a single array lookup.
+     */
+    byte[] javaBlockStateFlags;
 
     public int getBedrockBlockId(int javaState) {
         return getBedrockBlock(javaState).getRuntimeId();
@@ -78,6 +95,13 @@ public class BlockMappings implements DefinitionRegistry<GeyserBedrockBlock> {
         return this.javaToBedrockBlocks[javaState];
     }
 
+    public int getJavaBlockStateFlags(int javaState) {
+        if (javaState < 0 || javaState >= this.javaBlockStateFlags.length) {
+            return 0;
+        }
+        return this.javaBlockStateFlags[javaState];
+    }
+
     public GeyserBedrockBlock getVanillaBedrockBlock(int javaState) {
         if (javaState < 0 || javaState >= this.javaToVanillaBedrockBlocks.length) {
             return bedrockAir;
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2019-2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.session;
+
+import io.netty.util.ReferenceCountUtil;
+import org.cloudburstmc.protocol.bedrock.packet.BedrockPacket;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Keeps upstream packets in order while chunks are encoded on the shared chunk encoding executor.
+ * <p>
+ * Once a chunk has been submitted, every packet sent to the client is held back until all chunks submitted
+ * before it have been sent, so a block update can never reach the client before the chunk it belongs to.
+ */
+public final class ChunkEncodingQueue {
+    /**
+     * How many chunks a single session may have encoding at once. Past this, chunks are encoded on the
+     * session's own event loop so one player loading many chunks cannot take over the shared executor.
+     */
+    private static final int MAX_IN_FLIGHT = 8;
+
+    private final GeyserSession session;
+    private final ExecutorService executor;
+    /**
+     * Either {@link PendingChunk}s or {@link BedrockPacket}s that were sent while a chunk was still encoding.
+     */
+    private final Queue<Object> pending = new ArrayDeque<>();
+    private int inFlight = 0;
+    /**
+     * True while a finished chunk is being sent, as anything it sends must go out before the rest of the queue.
+     */
+    private boolean draining = false;
+
+    public ChunkEncodingQueue(GeyserSession session) {
+        this.session = session;
+        this.executor = session.getGeyser().getChunkEncodingExecutor();
+    }
+
+    /**
+     * @return if a chunk can be encoded off of the session's event loop right now
+     */
+    public synchronized boolean canSubmit() {
+        return executor != null && inFlight < MAX_IN_FLIGHT;
+    }
+
+    /**
+     * Runs the encoding task on the chunk encoding executor. The callback will be run on the session's event loop,
+     * in the same order as chunks were submitted.
+     *
+     * @param discard called instead of the callback if the session closes first, to release anything held by the result
+     */
+    public synchronized <T> void submit(Callable<T> task, Consumer<T> callback, Consumer<T> discard) {
+        PendingChunk<T> chunk = new PendingChunk<>(task, callback, discard);
+        pending.add(chunk);
+        inFlight++;
+        try {
+            executor.execute(() -> {
+                chunk.run();
+                session.executeInEventLoop(this::drain);
+            });
+        } catch (RejectedExecutionException e) {
+            // The executor is saturated or shutting down - encode here instead
+            chunk.run();
+            drain();
+        }
+    }
+
+    /**
+     * @return true if the packet has been queued behind a chunk that is still encoding and should not be sent yet
+     */
+    public synchronized boolean queueIfPending(BedrockPacket packet) {
+        if (pending.isEmpty() || draining) {
+            return false;
+        }
+        pending.add(packet);
+        return true;
+    }
+
+    private synchronized void drain() {
+        if (session.isClosed()) {
+            Object next;
+            while ((next = pending.poll()) != null) {
+                if (next instanceof PendingChunk<?> chunk) {
+                    chunk.cancel();
+                } else {
+                    ReferenceCountUtil.release(next);
+                }
+            }
+            return;
+        }
+
+        Object next;
+        while ((next = pending.peek()) != null) {
+            if (next instanceof PendingChunk<?> chunk) {
+                if (!chunk.done) {
+                    // Still waiting on this chunk; the executor will call drain again once it is done
+                    return;
+                }
+                pending.poll();
+                inFlight--;
+                draining = true;
+                try {
+                    chunk.complete(session);
+                } finally {
+                    draining = false;
+                }
+            } else {
+                pending.poll();
+                session.getUpstream().sendPacket((BedrockPacket) next);
+            }
+        }
+    }
+
+    private static final class PendingChunk<T> {
+        private final Callable<T> task;
+        private final Consumer<T> callback;
+        private final Consumer<T> discard;
+        private T result;
+        private Throwable error;
+        private volatile boolean done;
+        private boolean cancelled;
+
+        PendingChunk(Callable<T> task, Consumer<T> callback, Consumer<T> discard) {
+            this.task = task;
+            this.callback = callback;
+            this.discard = discard;
+        }
+
+        void run() {
+            T result = null;
+            Throwable error = null;
+            try {
+                result = task.call();
+            } catch (Throwable e) {
+                error = e;
+            }
+            synchronized (this) {
+                if (cancelled) {
+                    if (result != null) {
+                        discard.accept(result);
+                    }
+                    return;
+                }
+                this.result = result;
+                this.error = error;
+                done = true;
+            }
+        }
+
+        /**
+         * Discards the result, either now or once the task has finished.
+         */
+        synchronized void cancel() {
+            cancelled = true;
+            if (done && result != null) {
+                discard.accept(result);
+                result = null;
+            }
+        }
+
+        void complete(GeyserSession session) {
+            if (error != null) {
+                session.getGeyser().getLogger().error("Error while encoding chunk", error);
+                return;
+            }
+            try {
+                callback.accept(result);
+            } catch (Throwable e) {
+                session.getGeyser().getLogger().error("Error thrown in " + session.bedrockUsername() + "'s event loop!", e);
+            }
+        }
+    }
+}
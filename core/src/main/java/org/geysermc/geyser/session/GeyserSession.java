@@ -62,7 +62,9 @@ import com.github.steveice10.packetlib.packet.Packet;
 import com.github.steveice10.packetlib.tcp.TcpClientSession;
 import com.github.steveice10.packetlib.tcp.TcpSession;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoop;
+import io.netty.handler.flush.FlushConsolidationHandler;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
@@ -135,7 +137,9 @@ import org.geysermc.geyser.item.Items;
 import org.geysermc.geyser.level.JavaDimension;
 import org.geysermc.geyser.level.WorldManager;
 import org.geysermc.geyser.level.physics.CollisionManager;
+import org.geysermc.geyser.network.LoginPacketCache;
 import org.geysermc.geyser.network.netty.LocalSession;
+import org.geysermc.geyser.network.netty.handler.DownstreamWriteCounter;
 import org.geysermc.geyser.registry.Registries;
 import org.geysermc.geyser.registry.type.BlockMappings;
 import org.geysermc.geyser.registry.type.ItemMappings;
@@ -171,6 +175,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @Getter
@@ -178,6 +183,7 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
 
     private final GeyserImpl geyser;
     private final UpstreamSession upstream;
+    private final ChunkEncodingQueue chunkEncodingQueue;
     private DownstreamSession downstream;
     /**
      * The loop where all packets and ticking is processed to prevent concurrency issues.
@@ -206,6 +212,7 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
 
     private final AdvancementsCache advancementsCache;
     private final BookEditCache bookEditCache;
+    private final ChunkBlobCache chunkBlobCache;
     private final ChunkCache chunkCache;
     private final EntityCache entityCache;
     private final EntityEffectCache effectCache;
@@ -214,6 +221,7 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
     private final PistonCache pistonCache;
     private final PreferencesCache preferencesCache;
     private final SkullCache skullCache;
+    private final SkinDeliveryCache skinDeliveryCache;
     private final StructureBlockCache structureBlockCache;
     private final TagCache tagCache;
     private final WorldCache worldCache;
@@ -595,6 +603,20 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
      */
     private final Queue<Long> keepAliveCache = new ConcurrentLinkedQueue<>();
 
+    /**
+     * Packets for the Java server sent from outside its event loop. They are written in one task once the event loop
+     * gets to them, instead of in one task each.
+     */
+    @Getter(AccessLevel.NONE)
+    private final Queue<Packet> pendingDownstreamPackets = new ConcurrentLinkedQueue<>();
+    @Getter(AccessLevel.NONE)
+    private final AtomicBoolean downstreamDrainScheduled = new AtomicBoolean();
+
+    /**
+     * Counts writes and flushes to the Java server. Null until connected.
+     */
+    private volatile DownstreamWriteCounter downstreamWriteCounter;
+
     /**
      * Stores the book that is currently being read. Used in {@link org.geysermc.geyser.translator.protocol.java.inventory.JavaOpenBookTranslator}
      */
@@ -610,12 +632,14 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
     public GeyserSession(GeyserImpl geyser, BedrockServerSession bedrockServerSession, EventLoop eventLoop) {
         this.geyser = geyser;
         this.upstream = new UpstreamSession(bedrockServerSession);
+        this.chunkEncodingQueue = new ChunkEncodingQueue(this);
         this.eventLoop = eventLoop;
 
         this.erosionHandler = new GeyserboundHandshakePacketHandler(this);
 
         this.advancementsCache = new AdvancementsCache(this);
         this.bookEditCache = new BookEditCache(this);
+        this.chunkBlobCache = new ChunkBlobCache(this);
         this.chunkCache = new ChunkCache(this);
         this.entityCache = new EntityCache(this);
         this.effectCache = new EntityEffectCache();
@@ -624,6 +648,7 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
         this.pistonCache = new PistonCache(this);
         this.preferencesCache = new PreferencesCache(this);
         this.skullCache = new SkullCache(this);
+        this.skinDeliveryCache = new SkinDeliveryCache(this);
         this.structureBlockCache = new StructureBlockCache();
         this.tagCache = new TagCache();
         this.worldCache = new WorldCache(this);
@@ -673,29 +698,22 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
         // Set the hardcoded shield ID to the ID we just defined in StartGamePacket
         // upstream.getSession().getHardcodedBlockingId().set(this.itemMappings.getStoredItems().shield().getBedrockId());
 
-        if (GeyserImpl.getInstance().getConfig().isAddNonBedrockItems()) {
-            ItemComponentPacket componentPacket = new ItemComponentPacket();
-            componentPacket.getItems().addAll(itemMappings.getComponentItemData());
+        // These are identical for every session on the same version, so they are only serialized once
+        BedrockPacket componentPacket = LoginPacketCache.itemComponents(this);
+        if (componentPacket != null) {
             upstream.sendPacket(componentPacket);
         }
 
         ChunkUtils.sendEmptyChunks(this, playerEntity.getPosition().toInt(), 0, false);
 
-        BiomeDefinitionListPacket biomeDefinitionListPacket = new BiomeDefinitionListPacket();
-        biomeDefinitionListPacket.setDefinitions(Registries.BIOMES_NBT.get());
-        upstream.sendPacket(biomeDefinitionListPacket);
-
-        AvailableEntityIdentifiersPacket entityPacket = new AvailableEntityIdentifiersPacket();
-        entityPacket.setIdentifiers(Registries.BEDROCK_ENTITY_IDENTIFIERS.get());
-        upstream.sendPacket(entityPacket);
+        upstream.sendPacket(LoginPacketCache.biomeDefinitions(this));
+        upstream.sendPacket(LoginPacketCache.entityIdentifiers(this));
 
         CameraPresetsPacket cameraPresetsPacket = new CameraPresetsPacket();
         cameraPresetsPacket.getPresets().addAll(CameraDefinitions.CAMERA_PRESETS);
         upstream.sendPacket(cameraPresetsPacket);
 
-        CreativeContentPacket creativePacket = new CreativeContentPacket();
-        creativePacket.setContents(this.itemMappings.getCreativeItems());
-        upstream.sendPacket(creativePacket);
+        upstream.sendPacket(LoginPacketCache.creativeContent(this));
 
         // Potion mixes are registered by default, as they are needed to be able to put ingredients into the brewing stand.
         CraftingDataPacket craftingDataPacket = new CraftingDataPacket();
@@ -903,7 +921,7 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
             // We're going to connect through the JVM and not through TCP
             downstream = new LocalSession(this.remoteServer.address(), this.remoteServer.port(),
                     geyser.getBootstrap().getSocketAddress(), upstream.getAddress().getAddress().getHostAddress(),
-                    this.protocol, this.protocol.createHelper());
+                    this.protocol, this.protocol.createHelper(), !geyser.getBootstrap().isDirectConnectionFramingDisabled());
             this.downstream = new DownstreamSession(downstream);
         } else {
             downstream = new TcpClientSession(this.remoteServer.address(), this.remoteServer.port(), this.protocol);
@@ -988,6 +1006,15 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
                 loggingIn = false;
                 loggedIn = true;
 
+                ChannelPipeline pipeline = downstream.getChannel().pipeline();
+                int maxBatchedWrites = geyser.getConfig().getRemote().getMaxBatchedWrites();
+                if (maxBatchedWrites > 0) {
+                    // Packets written within the same event loop task are flushed to the socket together
+                    pipeline.addFirst("geyser-flush-consolidation", new FlushConsolidationHandler(maxBatchedWrites, true));
+                }
+                downstreamWriteCounter = new DownstreamWriteCounter();
+                pipeline.addFirst(DownstreamWriteCounter.NAME, downstreamWriteCounter);
+
                 if (downstream instanceof LocalSession) {
                     // Connected directly to the server
                     geyser.getLogger().info(GeyserLocale.getLocaleStringLog("geyser.network.remote.connect_internal",
@@ -1139,6 +1166,11 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
         erosionHandler.close();
 
         closed = true;
+
+        if (geyser.getSharedChunkSections() != null) {
+            // Give up the chunks shared with other sessions; no more chunks are cached once closed
+            ensureInEventLoop(chunkCache::clear);
+        }
     }
 
     /**
@@ -1226,6 +1258,8 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
                 entity.tick();
             }
 
+            skinDeliveryCache.tick();
+
             if (armAnimationTicks >= 0) {
                 // As of 1.18.2 Java Edition, it appears that the swing time is dynamically updated depending on the
                 // player's effect status, but the animation can cut short if the duration suddenly decreases
@@ -1440,7 +1474,7 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
         textPacket.setNeedsTranslation(false);
         textPacket.setMessage(message);
 
-        upstream.sendPacket(textPacket);
+        sendUpstreamPacket(textPacket);
     }
 
     @Override
@@ -1474,7 +1508,7 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
 
         ChunkRadiusUpdatedPacket chunkRadiusUpdatedPacket = new ChunkRadiusUpdatedPacket();
         chunkRadiusUpdatedPacket.setRadius(renderDistance);
-        upstream.sendPacket(chunkRadiusUpdatedPacket);
+        sendUpstreamPacket(chunkRadiusUpdatedPacket);
     }
 
     public InetSocketAddress getSocketAddress() {
@@ -1629,15 +1663,23 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
      * @param packet the bedrock packet from the NukkitX protocol lib
      */
     public void sendUpstreamPacket(BedrockPacket packet) {
+        if (chunkEncodingQueue.queueIfPending(packet)) {
+            // Will be sent once the chunks before it have finished encoding
+            return;
+        }
         upstream.sendPacket(packet);
     }
 
     /**
-     * Send a packet immediately to the player.
+     * Send a packet immediately to the player. If chunks are still encoding, the packet is instead sent as soon as
+     * the chunks before it have been, so it cannot overtake them.
      *
      * @param packet the bedrock packet from the NukkitX protocol lib
      */
     public void sendUpstreamPacketImmediately(BedrockPacket packet) {
+        if (chunkEncodingQueue.queueIfPending(packet)) {
+            return;
+        }
         upstream.sendPacketImmediately(packet);
     }
 
@@ -1704,11 +1746,23 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
             if (eventLoop.inEventLoop()) {
                 sendDownstreamPacket0(packet);
             } else {
-                eventLoop.execute(() -> sendDownstreamPacket0(packet));
+                pendingDownstreamPackets.add(packet);
+                if (downstreamDrainScheduled.compareAndSet(false, true)) {
+                    eventLoop.execute(this::sendPendingDownstreamPackets);
+                }
             }
         }
     }
 
+    private void sendPendingDownstreamPackets() {
+        // Cleared first, so packets added while draining schedule another drain if this one misses them
+        downstreamDrainScheduled.set(false);
+        Packet packet;
+        while ((packet = pendingDownstreamPackets.poll()) != null) {
+            sendDownstreamPacket0(packet);
+        }
+    }
+
     private void sendDownstreamPacket0(Packet packet) {
         ProtocolState state = protocol.getState();
         if (state == ProtocolState.GAME || state == ProtocolState.CONFIGURATION || packet.getClass() == ServerboundCustomQueryAnswerPacket.class) {
@@ -1751,7 +1805,7 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
     public void sendGameRule(String gameRule, Object value) {
         GameRulesChangedPacket gameRulesChangedPacket = new GameRulesChangedPacket();
         gameRulesChangedPacket.getGameRules().add(new GameRuleData<>(gameRule, value));
-        upstream.sendPacket(gameRulesChangedPacket);
+        sendUpstreamPacket(gameRulesChangedPacket);
     }
 
     /**
@@ -25,6 +25,7 @@
 
 package org.geysermc.geyser.session;
 
+import io.netty.util.ReferenceCountUtil;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
@@ -32,6 +33,7 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 import org.cloudburstmc.protocol.bedrock.BedrockServerSession;
 import org.cloudburstmc.protocol.bedrock.codec.BedrockCodecHelper;
 import org.cloudburstmc.protocol.bedrock.packet.BedrockPacket;
+import org.geysermc.geyser.network.AdaptiveCompression;
 import org.geysermc.geyser.network.GeyserBedrockPeer;
 
 import java.net.InetSocketAddress;
@@ -43,17 +45,27 @@ public class UpstreamSession {
     @Getter private final BedrockServerSession session;
     @Getter @Setter
     private boolean initialized = false;
+    /**
+     * How packets to this client are compressed, or null if compression has not been negotiated yet.
+     */
+    @Getter @Setter
+    private AdaptiveCompression compression;
     private Queue<BedrockPacket> postStartGamePackets = new ArrayDeque<>();
 
     public void sendPacket(@NonNull BedrockPacket packet) {
         if (!isClosed()) {
             session.sendPacket(packet);
+        } else {
+            // Packets holding pooled buffers, such as chunks, would otherwise never be released
+            ReferenceCountUtil.release(packet);
         }
     }
 
     public void sendPacketImmediately(@NonNull BedrockPacket packet) {
         if (!isClosed()) {
             session.sendPacketImmediately(packet);
+        } else {
+            ReferenceCountUtil.release(packet);
         }
     }
 
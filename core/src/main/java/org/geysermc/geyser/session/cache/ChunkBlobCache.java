@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2019-2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.session.cache;
+
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongList;
+import lombok.Getter;
+import lombok.Setter;
+import org.cloudburstmc.protocol.bedrock.packet.ClientCacheMissResponsePacket;
+import org.geysermc.geyser.session.GeyserSession;
+
+/**
+ * Tracks chunk blobs that have been sent to a Bedrock client with caching enabled.
+ * <p>
+ * When blob caching is used, chunk sections and biomes are only referenced by their hash in the
+ * LevelChunkPacket. The client then tells us which hashes it already knows and which ones it needs,
+ * and we answer the missing ones from here.
+ */
+public class ChunkBlobCache {
+    /**
+     * If a client stops answering blob status requests, stop using the cache rather than holding onto blobs forever.
+     */
+    private static final int MAX_PENDING_BLOBS = 2048;
+
+    private final GeyserSession session;
+    private final boolean enabledInConfig;
+
+    /**
+     * Set by the client in ClientCacheStatusPacket during login.
+     */
+    @Setter
+    private boolean clientSupported = false;
+
+    /**
+     * Blobs that have been sent by hash but not yet acknowledged or requested by the client.
+     */
+    private final Long2ObjectMap<byte[]> pendingBlobs = new Long2ObjectOpenHashMap<>();
+    /**
+     * How many sent chunks still reference each pending blob.
+     */
+    private final Long2IntMap pendingReferences = new Long2IntOpenHashMap();
+
+    @Getter
+    private long hits;
+    @Getter
+    private long misses;
+
+    public ChunkBlobCache(GeyserSession session) {
+        this.session = session;
+        this.enabledInConfig = session.getGeyser().getConfig().isEnableClientBlobCache();
+    }
+
+    /**
+     * @return if chunks for this session should be sent with blob caching enabled
+     */
+    public boolean isEnabled() {
+        return enabledInConfig && clientSupported && pendingBlobs.size() < MAX_PENDING_BLOBS;
+    }
+
+    /**
+     * Holds onto the blob until the client confirms whether it needs it.
+     *
+     * @param blobId the xxHash64 of the blob, as sent to the client
+     * @param blob the blob's data
+     */
+    public void addBlob(long blobId, byte[] blob) {
+        pendingBlobs.putIfAbsent(blobId, blob);
+        pendingReferences.put(blobId, pendingReferences.get(blobId) + 1);
+    }
+
+    /**
+     * Answers a ClientCacheBlobStatusPacket - acknowledged blobs are released, and missing blobs are sent to the client.
+     */
+    public void onBlobStatus(LongList acks, LongList naks) {
+        for (int i = 0; i < acks.size(); i++) {
+            long blobId = acks.getLong(i);
+            if (release(blobId) != null) {
+                hits++;
+            }
+        }
+
+        if (naks.isEmpty()) {
+            return;
+        }
+
+        ClientCacheMissResponsePacket response = new ClientCacheMissResponsePacket();
+        for (int i = 0; i < naks.size(); i++) {
+            long blobId = naks.getLong(i);
+            byte[] blob = release(blobId);
+            if (blob == null) {
+                session.getGeyser().getLogger().debug("Client requested unknown blob " + blobId);
+                continue;
+            }
+            misses++;
+            response.getBlobs().put(blobId, Unpooled.wrappedBuffer(blob));
+        }
+
+        if (!response.getBlobs().isEmpty()) {
+            session.sendUpstreamPacket(response);
+        }
+    }
+
+    /**
+     * @return the pending blob's data, or null if this blob was not pending
+     */
+    private byte[] release(long blobId) {
+        byte[] blob = pendingBlobs.get(blobId);
+        if (blob == null) {
+            return null;
+        }
+        int references = pendingReferences.get(blobId) - 1;
+        if (references <= 0) {
+            pendingReferences.remove(blobId);
+            pendingBlobs.remove(blobId);
+        } else {
+            pendingReferences.put(blobId, references);
+        }
+        return blob;
+    }
+}
@@ -30,16 +30,27 @@ import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import lombok.Getter;
 import lombok.Setter;
+import org.geysermc.geyser.api.network.RemoteServer;
 import org.geysermc.geyser.level.BedrockDimension;
 import org.geysermc.geyser.level.block.BlockStateValues;
+import org.geysermc.geyser.level.chunk.CachedChunkSection;
 import org.geysermc.geyser.level.chunk.GeyserChunk;
+import org.geysermc.geyser.level.chunk.SharedChunkSections;
 import org.geysermc.geyser.session.GeyserSession;
 import org.geysermc.geyser.util.MathUtils;
+import org.geysermc.geyser.util.XXHash64;
 
 public class ChunkCache {
+    private final GeyserSession session;
     private final boolean cache;
     private final Long2ObjectMap<GeyserChunk> chunks;
 
+    /**
+     * An approximation of how much memory cached chunks use, in bytes. Chunks shared with other sessions are not included.
+     */
+    @Getter
+    private volatile long bytesHeld;
+
     @Setter
     private int minY;
     @Setter
@@ -53,18 +64,45 @@ public class ChunkCache {
     private BedrockDimension bedrockDimension = BedrockDimension.OVERWORLD;
 
     public ChunkCache(GeyserSession session) {
+        this.session = session;
         this.cache = !session.getGeyser().getWorldManager().hasOwnChunkCache(); // To prevent Spigot from initializing
         chunks = cache ? new Long2ObjectOpenHashMap<>() : null;
     }
 
-    public void addToCache(int x, int z, DataPalette[] chunks) {
-        if (!cache) {
+    /**
+     * @param chunks the decoded Java sections, which must not be modified afterwards
+     * @param chunkData the raw chunk data the sections were decoded from
+     * @param stillRead if the decoded sections are still being read on another thread, so must not be modified by later
+     *                  block updates either
+     */
+    public void addToCache(int x, int z, DataPalette[] chunks, byte[] chunkData, boolean stillRead) {
+        if (!cache || session.isClosed()) {
             return;
         }
 
         long chunkPosition = MathUtils.chunkPositionToLong(x, z);
-        GeyserChunk geyserChunk = GeyserChunk.from(chunks);
-        this.chunks.put(chunkPosition, geyserChunk);
+        GeyserChunk geyserChunk;
+        SharedChunkSections sharedSections = session.getGeyser().getSharedChunkSections();
+        if (sharedSections != null) {
+            RemoteServer remoteServer = session.getRemoteServer();
+            SharedChunkSections.Key key = new SharedChunkSections.Key(remoteServer.address(), remoteServer.port(),
+                    session.getWorldName(), session.getDimension(), minY, chunks.length, chunkPosition);
+            geyserChunk = GeyserChunk.view(sharedSections.acquire(key, chunks, chunkData.length, XXHash64.hash(chunkData)));
+        } else {
+            CachedChunkSection[] sections = new CachedChunkSection[chunks.length];
+            for (int i = 0; i < chunks.length; i++) {
+                sections[i] = CachedChunkSection.from(chunks[i], stillRead);
+            }
+            geyserChunk = GeyserChunk.from(sections);
+        }
+
+        GeyserChunk previous = this.chunks.put(chunkPosition, geyserChunk);
+        long bytes = geyserChunk.estimateBytes();
+        if (previous != null) {
+            bytes -= previous.estimateBytes();
+            previous.release();
+        }
+        bytesHeld += bytes;
     }
 
     /**
@@ -85,26 +123,14 @@ public class ChunkCache {
             return;
         }
 
-        if (y < minY || ((y - minY) >> 4) > chunk.sections().length - 1) {
+        if (y < minY || ((y - minY) >> 4) > chunk.sectionCount() - 1) {
             // Y likely goes above or below the height limit of this world
             return;
         }
 
-        DataPalette palette = chunk.sections()[(y - minY) >> 4];
-        if (palette == null) {
-            if (block != BlockStateValues.JAVA_AIR_ID) {
-                // A previously empty chunk, which is no longer empty as a block has been added to it
-                palette = DataPalette.createForChunk();
-                // Fixes the chunk assuming that all blocks is the `block` variable we are updating. /shrug
-                palette.getPalette().stateToId(BlockStateValues.JAVA_AIR_ID);
-                chunk.sections()[(y - minY) >> 4] = palette;
-            } else {
-                // Nothing to update
-                return;
-            }
-        }
-
-        palette.set(x & 0xF, y & 0xF, z & 0xF, block);
+        long previousBytes = chunk.estimateBytes();
+        chunk.setBlock((y - minY) >> 4, x & 0xF, y & 0xF, z & 0xF, block);
+        bytesHeld += chunk.estimateBytes() - previousBytes;
     }
 
     public int getBlockAt(int x, int y, int z) {
@@ -117,17 +143,12 @@ public class ChunkCache {
             return BlockStateValues.JAVA_AIR_ID;
         }
 
-        if (y < minY || ((y - minY) >> 4) > column.sections().length - 1) {
+        if (y < minY || ((y - minY) >> 4) > column.sectionCount() - 1) {
             // Y likely goes above or below the height limit of this world
             return BlockStateValues.JAVA_AIR_ID;
         }
 
-        DataPalette chunk = column.sections()[(y - minY) >> 4];
-        if (chunk != null) {
-            return chunk.get(x & 0xF, y & 0xF, z & 0xF);
-        }
-
-        return BlockStateValues.JAVA_AIR_ID;
+        return column.getBlock((y - minY) >> 4, x & 0xF, y & 0xF, z & 0xF);
     }
 
     public void removeChunk(int chunkX, int chunkZ) {
@@ -136,7 +157,11 @@ public class ChunkCache {
         }
 
         long chunkPosition = MathUtils.chunkPositionToLong(chunkX, chunkZ);
-        chunks.remove(chunkPosition);
+        GeyserChunk removed = chunks.remove(chunkPosition);
+        if (removed != null) {
+            bytesHeld -= removed.estimateBytes();
+            removed.release();
+        }
     }
 
     /**
@@ -149,7 +174,11 @@ public class ChunkCache {
             return;
         }
 
+        for (GeyserChunk chunk : chunks.values()) {
+            chunk.release();
+        }
         chunks.clear();
+        bytesHeld = 0;
     }
 
     public int getChunkMinY() {
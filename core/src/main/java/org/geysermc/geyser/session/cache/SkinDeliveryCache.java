@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2019-2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.session.cache;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import lombok.Getter;
+import org.cloudburstmc.math.vector.Vector3f;
+import org.geysermc.geyser.entity.type.player.PlayerEntity;
+import org.geysermc.geyser.session.GeyserSession;
+import org.geysermc.geyser.skin.SkinManager;
+import org.geysermc.geyser.skin.SkinProvider;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Holds back the skins of other players until they come within the configured distance, or are looked at.
+ * Until then, they are shown with their default skin from the player list.
+ */
+public class SkinDeliveryCache {
+    /**
+     * How many skins may be sent each tick, to spread out the upload when many players are nearby at once
+     */
+    private static final int MAX_SKINS_PER_TICK = 2;
+
+    private final GeyserSession session;
+    private final boolean enabled;
+    private final int distanceSquared;
+
+    /**
+     * Loaded skins that have not been sent yet. Only accessed on the session's event loop.
+     */
+    private final Map<UUID, PendingSkin> pendingSkins = new Object2ObjectOpenHashMap<>();
+    private final List<PendingSkin> inRangeSkins = new ArrayList<>();
+
+    // Only changed from the session's event loop
+    @Getter
+    private volatile long sentSkins;
+    @Getter
+    private volatile long sentBytes;
+    /**
+     * Skins that were never sent because the player despawned before coming close enough
+     */
+    @Getter
+    private volatile long skippedSkins;
+    @Getter
+    private volatile long savedBytes;
+
+    public SkinDeliveryCache(GeyserSession session) {
+        this.session = session;
+        int distance = session.getGeyser().getConfig().getSkinStreamingDistance();
+        this.enabled = distance > 0;
+        this.distanceSquared = distance * distance;
+    }
+
+    /**
+     * @return whether this player's skin should be left out of player list entries and sent once they are close by
+     */
+    public boolean isDeferred(PlayerEntity entity) {
+        return enabled && !entity.getUuid().equals(session.getPlayerEntity().getUuid());
+    }
+
+    /**
+     * Sends the skin right away, or holds on to it until the player is close enough.
+     */
+    public void deliver(PlayerEntity entity, SkinProvider.SkinData skinData) {
+        if (!isDeferred(entity)) {
+            SkinManager.sendSkinPacket(session, entity, skinData);
+            return;
+        }
+        session.ensureInEventLoop(() -> pendingSkins.put(entity.getUuid(), new PendingSkin(entity, skinData)));
+    }
+
+    public void tick() {
+        if (pendingSkins.isEmpty()) {
+            return;
+        }
+
+        Vector3f playerPosition = session.getPlayerEntity().getPosition();
+        Iterator<PendingSkin> iterator = pendingSkins.values().iterator();
+        while (iterator.hasNext()) {
+            PendingSkin skin = iterator.next();
+            PlayerEntity entity = skin.entity;
+            if (session.getEntityCache().getEntityByGeyserId(entity.getGeyserId()) != entity) {
+                // Despawned; the skin is requested again if the player spawns again
+                iterator.remove();
+                skippedSkins++;
+                savedBytes += skin.size();
+                continue;
+            }
+            if (session.getPlayerWithCustomHeads().contains(entity.getUuid())) {
+                // A skin with the custom head has already been sent, and the original is restored when it is taken off
+                iterator.remove();
+                continue;
+            }
+
+            skin.distanceSquared = entity == session.getMouseoverEntity() ? 0 : entity.getPosition().distanceSquared(playerPosition);
+            if (skin.distanceSquared <= distanceSquared) {
+                inRangeSkins.add(skin);
+            }
+        }
+
+        if (inRangeSkins.isEmpty()) {
+            return;
+        }
+        if (inRangeSkins.size() > MAX_SKINS_PER_TICK) {
+            inRangeSkins.sort(Comparator.comparingDouble(skin -> skin.distanceSquared));
+        }
+
+        int count = Math.min(inRangeSkins.size(), MAX_SKINS_PER_TICK);
+        for (int i = 0; i < count; i++) {
+            PendingSkin skin = inRangeSkins.get(i);
+            pendingSkins.remove(skin.entity.getUuid());
+            SkinManager.sendSkinPacket(session, skin.entity, skin.skinData);
+            sentSkins++;
+            sentBytes += skin.size();
+        }
+        inRangeSkins.clear();
+    }
+
+    /**
+     * @return how many skins are waiting for their player to come close enough
+     */
+    public int getPendingSkins() {
+        return pendingSkins.size();
+    }
+
+    private static final class PendingSkin {
+        private final PlayerEntity entity;
+        private final SkinProvider.SkinData skinData;
+        private float distanceSquared;
+
+        private PendingSkin(PlayerEntity entity, SkinProvider.SkinData skinData) {
+            this.entity = entity;
+            this.skinData = skinData;
+        }
+
+        private long size() {
+            return skinData.skin().getSkinData().length + skinData.cape().capeData().length
+                    + skinData.geometry().geometryData().length();
+        }
+    }
+}
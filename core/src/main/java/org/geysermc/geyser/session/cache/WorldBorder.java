@@ -307,6 +307,6 @@ public class WorldBorder {
         LevelEventPacket effectPacket = new LevelEventPacket();
         effectPacket.setPosition(Vector3f.from(x, y, z));
         effectPacket.setType(WORLD_BORDER_PARTICLE);
-        session.getUpstream().sendPacket(effectPacket);
+        session.sendUpstreamPacket(effectPacket);
     }
 }
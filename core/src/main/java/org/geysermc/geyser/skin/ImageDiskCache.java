@@ -0,0 +1,470 @@
+/*
+ * Copyright (c) 2019-2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.skin;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.geysermc.geyser.GeyserImpl;
+import org.geysermc.geyser.util.ImageUtils;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps downloaded skin and cape images on disk as raw RGBA pixels, so they don't need to be decoded again.
+ * <p>
+ * All images are appended to a single file, and an index of them is kept in memory and rebuilt from the file on
+ * startup. Once the images exceed the size limit, the least recently used ones are dropped from the index, and the
+ * space they took up is reclaimed in the background by rewriting the file with only the images still in use.
+ * <p>
+ * Each image is stored as: magic, last used time, width, height, URL length, URL and the RGBA pixels.
+ */
+final class ImageDiskCache {
+    private static final String FILE_NAME = "images.dat";
+    private static final int RECORD_MAGIC = 0x47494D47;
+    /**
+     * The size of everything in a record before the URL
+     */
+    private static final int HEADER_SIZE = Integer.BYTES + Long.BYTES + Integer.BYTES + Integer.BYTES + Short.BYTES;
+    private static final int MAX_IMAGE_SIZE = 1024;
+    /**
+     * How outdated the last used time of an image on disk may be before it is written again
+     */
+    private static final long LAST_USED_PRECISION = TimeUnit.HOURS.toMillis(1);
+
+    private final Path file;
+    private final long maxBytes;
+    private final long expireMillis;
+
+    /**
+     * Guards the file; compaction replaces it, so reads and appends must not overlap with it
+     */
+    private final ReadWriteLock fileLock = new ReentrantReadWriteLock();
+    /**
+     * All images in the file that are still in use, from least to most recently used. Guarded by itself.
+     */
+    private final LinkedHashMap<String, Entry> index = new LinkedHashMap<>(16, 0.75f, true);
+    private FileChannel channel;
+    private long liveBytes;
+    private long garbageBytes;
+
+    private ImageDiskCache(Path file, long maxBytes, long expireMillis) {
+        this.file = file;
+        this.maxBytes = maxBytes;
+        this.expireMillis = expireMillis;
+    }
+
+    /**
+     * Opens the cache in the given folder, reading the index of the images stored there.
+     *
+     * @param folder the folder to keep the cache in
+     * @param maxBytes how many bytes of images may be kept
+     * @param expireMillis how long an image may go unused before it is removed
+     */
+    static ImageDiskCache open(Path folder, long maxBytes, long expireMillis) throws IOException {
+        Files.createDirectories(folder);
+        deleteLegacyImages(folder);
+
+        ImageDiskCache cache = new ImageDiskCache(folder.resolve(FILE_NAME), maxBytes, expireMillis);
+        cache.channel = FileChannel.open(cache.file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        cache.loadIndex();
+        return cache;
+    }
+
+    /**
+     * Images used to be stored as individual PNG files, which are no longer read
+     */
+    private static void deleteLegacyImages(Path folder) throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(folder, "*.png")) {
+            for (Path path : stream) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private void loadIndex() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        long position = 0;
+        long size = channel.size();
+        long expireBefore = System.currentTimeMillis() - expireMillis;
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 65536))) {
+            while (position < size) {
+                if (input.readInt() != RECORD_MAGIC) {
+                    break;
+                }
+                long lastUsed = input.readLong();
+                int width = input.readInt();
+                int height = input.readInt();
+                int keyLength = input.readUnsignedShort();
+                if (width <= 0 || height <= 0 || width > MAX_IMAGE_SIZE || height > MAX_IMAGE_SIZE || keyLength == 0) {
+                    break;
+                }
+                String key = new String(input.readNBytes(keyLength), StandardCharsets.UTF_8);
+                Entry entry = new Entry(key, position, keyLength, width, height, lastUsed);
+                if (position + entry.recordLength() > size) {
+                    // Partially written when the server stopped
+                    break;
+                }
+                skipFully(input, entry.dataLength());
+                position += entry.recordLength();
+
+                if (lastUsed < expireBefore) {
+                    garbageBytes += entry.recordLength();
+                } else {
+                    entries.add(entry);
+                }
+            }
+        } catch (EOFException ignored) {
+        }
+
+        if (position < size) {
+            GeyserImpl.getInstance().getLogger().debug("Discarding " + (size - position) + " unreadable bytes at the end of the image cache");
+            channel.truncate(position);
+        }
+
+        entries.sort(Comparator.comparingLong(entry -> entry.lastUsed));
+        synchronized (index) {
+            for (Entry entry : entries) {
+                Entry previous = index.put(entry.key, entry);
+                if (previous != null) {
+                    // Stored again after it was removed
+                    remove(previous);
+                }
+                liveBytes += entry.recordLength();
+            }
+            evictOverLimit();
+        }
+    }
+
+    private static void skipFully(InputStream input, long bytes) throws IOException {
+        while (bytes > 0) {
+            long skipped = input.skip(bytes);
+            if (skipped <= 0) {
+                throw new EOFException();
+            }
+            bytes -= skipped;
+        }
+    }
+
+    /**
+     * @return the image stored for this URL, or null if there is none
+     */
+    @Nullable BufferedImage read(String key) {
+        long now = System.currentTimeMillis();
+        Entry entry;
+        synchronized (index) {
+            entry = index.get(key);
+            if (entry == null) {
+                return null;
+            }
+            entry.lastUsed = now;
+        }
+
+        fileLock.readLock().lock();
+        try {
+            long offset;
+            synchronized (index) {
+                if (entry.removed) {
+                    return null;
+                }
+                offset = entry.offset;
+            }
+
+            ByteBuffer data = ByteBuffer.allocate(entry.dataLength());
+            readFully(data, offset + entry.headerLength());
+
+            if (now - entry.storedLastUsed > LAST_USED_PRECISION) {
+                // Keep the time on disk close enough that the image doesn't expire while it is still being used
+                entry.storedLastUsed = now;
+                writeFully(ByteBuffer.allocate(Long.BYTES).putLong(0, now), offset + Integer.BYTES);
+            }
+            return ImageUtils.fromRgba(data.array(), entry.width, entry.height);
+        } catch (IOException e) {
+            GeyserImpl.getInstance().getLogger().debug("Could not read " + key + " from the image cache: " + e);
+            return null;
+        } finally {
+            fileLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stores the image for this URL.
+     */
+    void write(String key, BufferedImage image) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length > 0xFFFF || image.getWidth() > MAX_IMAGE_SIZE || image.getHeight() > MAX_IMAGE_SIZE) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        byte[] data = ImageUtils.toRgba(image);
+
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + keyBytes.length + data.length)
+                .putInt(RECORD_MAGIC)
+                .putLong(now)
+                .putInt(image.getWidth())
+                .putInt(image.getHeight())
+                .putShort((short) keyBytes.length)
+                .put(keyBytes)
+                .put(data)
+                .flip();
+
+        fileLock.writeLock().lock();
+        try {
+            long offset = channel.size();
+            writeFully(record, offset);
+
+            Entry entry = new Entry(key, offset, keyBytes.length, image.getWidth(), image.getHeight(), now);
+            synchronized (index) {
+                Entry previous = index.put(key, entry);
+                if (previous != null) {
+                    remove(previous);
+                }
+                liveBytes += entry.recordLength();
+                evictOverLimit();
+            }
+        } catch (IOException e) {
+            GeyserImpl.getInstance().getLogger().debug("Could not write " + key + " to the image cache: " + e);
+        } finally {
+            fileLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes images that have not been used for too long, and rewrites the file once enough of it is taken up by
+     * images no longer in use.
+     */
+    void maintain() {
+        long expireBefore = System.currentTimeMillis() - expireMillis;
+        synchronized (index) {
+            // Least recently used first, so we can stop at the first one still in use
+            Iterator<Entry> iterator = index.values().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (entry.lastUsed >= expireBefore) {
+                    break;
+                }
+                iterator.remove();
+                remove(entry);
+            }
+
+            if (garbageBytes == 0 || garbageBytes < liveBytes / 2) {
+                return;
+            }
+        }
+
+        try {
+            compact();
+        } catch (IOException e) {
+            GeyserImpl.getInstance().getLogger().error("Could not compact the image cache", e);
+        }
+    }
+
+    private void compact() throws IOException {
+        Path temporaryFile = file.resolveSibling(FILE_NAME + ".tmp");
+
+        fileLock.writeLock().lock();
+        try {
+            List<Entry> entries;
+            synchronized (index) {
+                entries = new ArrayList<>(index.values());
+            }
+
+            long[] newOffsets = new long[entries.size()];
+            try (FileChannel target = FileChannel.open(temporaryFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                long position = 0;
+                for (int i = 0; i < entries.size(); i++) {
+                    Entry entry = entries.get(i);
+                    newOffsets[i] = position;
+                    long transferred = 0;
+                    while (transferred < entry.recordLength()) {
+                        transferred += channel.transferTo(entry.offset + transferred, entry.recordLength() - transferred, target);
+                    }
+                    position += entry.recordLength();
+                }
+            }
+
+            long oldSize = channel.size();
+            channel.close();
+            boolean replaced = false;
+            try {
+                moveReplacing(temporaryFile, file);
+                replaced = true;
+            } finally {
+                // Reopened even if the move failed, so the cache keeps working with the old file
+                channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                if (!replaced && channel.size() != oldSize) {
+                    // The old file did not survive the failed move either
+                    clear();
+                }
+            }
+
+            synchronized (index) {
+                long before = garbageBytes;
+                garbageBytes = 0;
+                for (int i = 0; i < entries.size(); i++) {
+                    Entry entry = entries.get(i);
+                    entry.offset = newOffsets[i];
+                    if (entry.removed) {
+                        // Removed while we were copying; its copy is garbage in the new file
+                        garbageBytes += entry.recordLength();
+                    }
+                }
+                GeyserImpl.getInstance().getLogger().debug("Compacted the image cache, freeing " + (before - garbageBytes) + " bytes");
+            }
+        } finally {
+            fileLock.writeLock().unlock();
+        }
+    }
+
+    private static void moveReplacing(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Forgets every image. Must be called while holding the file write lock.
+     */
+    private void clear() throws IOException {
+        synchronized (index) {
+            for (Entry entry : index.values()) {
+                entry.removed = true;
+            }
+            index.clear();
+            liveBytes = 0;
+            garbageBytes = 0;
+        }
+        channel.truncate(0);
+    }
+
+    void close() {
+        fileLock.writeLock().lock();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            GeyserImpl.getInstance().getLogger().debug("Could not close the image cache: " + e);
+        } finally {
+            fileLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Must be called while holding the index lock, with the entry no longer in the index.
+     */
+    private void remove(Entry entry) {
+        entry.removed = true;
+        liveBytes -= entry.recordLength();
+        garbageBytes += entry.recordLength();
+    }
+
+    /**
+     * Must be called while holding the index lock.
+     */
+    private void evictOverLimit() {
+        Iterator<Entry> iterator = index.values().iterator();
+        while (liveBytes > maxBytes && iterator.hasNext()) {
+            Entry entry = iterator.next();
+            iterator.remove();
+            remove(entry);
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        int start = buffer.position();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position() - start);
+        }
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final int keyLength;
+        private final int width;
+        private final int height;
+        /**
+         * Where the record starts in the file. Only changed by compaction.
+         */
+        private long offset;
+        private long lastUsed;
+        private long storedLastUsed;
+        private boolean removed;
+
+        private Entry(String key, long offset, int keyLength, int width, int height, long lastUsed) {
+            this.key = key;
+            this.offset = offset;
+            this.keyLength = keyLength;
+            this.width = width;
+            this.height = height;
+            this.lastUsed = lastUsed;
+            this.storedLastUsed = lastUsed;
+        }
+
+        private int headerLength() {
+            return HEADER_SIZE + keyLength;
+        }
+
+        private int dataLength() {
+            return width * height * 4;
+        }
+
+        private long recordLength() {
+            return headerLength() + dataLength();
+        }
+    }
+}
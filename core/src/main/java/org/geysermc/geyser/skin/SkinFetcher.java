@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2019-2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.skin;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.geysermc.geyser.util.WebUtils;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Downloads skins, capes and profiles without holding a thread for each request.
+ * <p>
+ * Concurrent requests for the same URL share one download, each host has its own limit of concurrent downloads
+ * so a slow cape provider cannot hold up Mojang's textures, and failed downloads are retried with backoff.
+ * URLs that don't exist are remembered for a while, so they aren't requested again for every player.
+ */
+final class SkinFetcher {
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long INITIAL_BACKOFF_MILLIS = 500;
+
+    private static final int DEFAULT_HOST_LIMIT = 4;
+    private static final Map<String, Integer> HOST_LIMITS = Map.of(
+            "textures.minecraft.net", 16,
+            "sessionserver.mojang.com", 8,
+            "api.mojang.com", 8
+    );
+
+    private static final Map<String, CompletableFuture<byte[]>> IN_FLIGHT = new ConcurrentHashMap<>();
+    private static final Map<String, HostLimiter> HOST_LIMITERS = new ConcurrentHashMap<>();
+    private static final Cache<String, Boolean> MISSING = CacheBuilder.newBuilder()
+            .expireAfterWrite(10, TimeUnit.MINUTES)
+            .maximumSize(10000)
+            .build();
+
+    private SkinFetcher() {
+    }
+
+    /**
+     * Requests the body of the given URL.
+     *
+     * @param url the URL to download
+     * @return the body, or a future completed with a {@link FileNotFoundException} if the URL does not exist
+     */
+    static CompletableFuture<byte[]> fetch(String url) {
+        if (MISSING.getIfPresent(url) != null) {
+            return CompletableFuture.failedFuture(new FileNotFoundException(url));
+        }
+
+        CompletableFuture<byte[]> future = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = IN_FLIGHT.putIfAbsent(url, future);
+        if (existing != null) {
+            return existing;
+        }
+        future.whenComplete((body, throwable) -> IN_FLIGHT.remove(url, future));
+
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                    .header("User-Agent", WebUtils.getUserAgent())
+                    .timeout(REQUEST_TIMEOUT)
+                    .GET()
+                    .build();
+            attempt(request, url, 1, future);
+        } catch (IllegalArgumentException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private static void attempt(HttpRequest request, String url, int attempt, CompletableFuture<byte[]> result) {
+        String host = request.uri().getHost();
+        HostLimiter limiter = HOST_LIMITERS.computeIfAbsent(host == null ? "" : host,
+                key -> new HostLimiter(HOST_LIMITS.getOrDefault(key, DEFAULT_HOST_LIMIT)));
+
+        limiter.submit(() -> CLIENT.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())).whenComplete((response, throwable) -> {
+            if (throwable == null) {
+                int status = response.statusCode();
+                if (status >= 200 && status < 300 && status != 204) {
+                    result.complete(response.body());
+                    return;
+                }
+                if (status == 204 || status == 404 || status == 410) {
+                    // Mojang answers with no content for unknown usernames
+                    MISSING.put(url, Boolean.TRUE);
+                    result.completeExceptionally(new FileNotFoundException(url));
+                    return;
+                }
+                throwable = new IOException("Received status " + status + " for " + url);
+                if (status != 429 && status < 500) {
+                    result.completeExceptionally(throwable);
+                    return;
+                }
+            }
+
+            if (throwable instanceof CompletionException && throwable.getCause() != null) {
+                throwable = throwable.getCause();
+            }
+            if (attempt >= MAX_ATTEMPTS || throwable instanceof HttpTimeoutException) {
+                // Retrying a host that doesn't answer in time would only hold its slots for longer
+                result.completeExceptionally(throwable);
+                return;
+            }
+
+            long delay = INITIAL_BACKOFF_MILLIS << (attempt - 1);
+            CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS)
+                    .execute(() -> attempt(request, url, attempt + 1, result));
+        });
+    }
+
+    /**
+     * Runs at most a fixed number of requests to one host at once, queueing the rest.
+     */
+    private static final class HostLimiter {
+        private final int limit;
+        private final Queue<Runnable> waiting = new ArrayDeque<>();
+        private int running;
+
+        private HostLimiter(int limit) {
+            this.limit = limit;
+        }
+
+        <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> task) {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            Runnable start = () -> {
+                try {
+                    task.get().whenComplete((value, throwable) -> {
+                        release();
+                        if (throwable != null) {
+                            result.completeExceptionally(throwable);
+                        } else {
+                            result.complete(value);
+                        }
+                    });
+                } catch (Throwable t) {
+                    release();
+                    result.completeExceptionally(t);
+                }
+            };
+
+            synchronized (this) {
+                if (running >= limit) {
+                    waiting.add(start);
+                    return result;
+                }
+                running++;
+            }
+            start.run();
+            return result;
+        }
+
+        private void release() {
+            Runnable next;
+            synchronized (this) {
+                next = waiting.poll();
+                if (next == null) {
+                    running--;
+                }
+            }
+            if (next != null) {
+                next.run();
+            }
+        }
+    }
+}
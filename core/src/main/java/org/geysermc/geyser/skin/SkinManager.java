@@ -59,7 +59,7 @@ public class SkinManager {
         SkinProvider.Skin skin = null;
         SkinProvider.Cape cape = null;
         SkinProvider.SkinGeometry geometry = SkinProvider.SkinGeometry.WIDE;
-        if (data != null) {
+        if (data != null && !session.getSkinDeliveryCache().isDeferred(playerEntity)) {
             // GameProfileData is not null = server provided us with textures data to work with.
             skin = SkinProvider.getCachedSkin(data.skinUrl());
             cape = SkinProvider.getCachedCape(data.capeUrl());
@@ -179,7 +179,7 @@ public class SkinManager {
             }
 
             if (skinData.geometry() != null) {
-                sendSkinPacket(session, entity, skinData);
+                session.getSkinDeliveryCache().deliver(entity, skinData);
             }
 
             if (skinAndCapeConsumer != null) {
@@ -202,8 +202,7 @@ public class SkinManager {
             byte[] geometryBytes = Base64.getDecoder().decode(clientData.getGeometryData().getBytes(StandardCharsets.UTF_8));
 
             if (skinBytes.length <= (128 * 128 * 4) && !clientData.isPersonaSkin()) {
-                SkinProvider.storeBedrockSkin(playerEntity.getUuid(), clientData.getSkinId(), skinBytes);
-                SkinProvider.storeBedrockGeometry(playerEntity.getUuid(), geometryNameBytes, geometryBytes);
+                SkinProvider.storeBedrockSkin(playerEntity.getUuid(), clientData.getSkinId(), skinBytes, geometryNameBytes, geometryBytes);
             } else if (geyser.getConfig().isDebugMode()) {
                 geyser.getLogger().info(GeyserLocale.getLocaleStringLog("geyser.skin.bedrock.fail", playerEntity.getUsername()));
                 geyser.getLogger().debug("The size of '" + playerEntity.getUsername() + "' skin is: " + clientData.getSkinImageWidth() + "x" + clientData.getSkinImageHeight());
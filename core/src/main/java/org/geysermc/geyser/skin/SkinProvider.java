@@ -26,8 +26,6 @@
 package org.geysermc.geyser.skin;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import it.unimi.dsi.fastutil.bytes.ByteArrays;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -40,18 +38,16 @@ import org.geysermc.geyser.entity.type.player.PlayerEntity;
 import org.geysermc.geyser.session.GeyserSession;
 import org.geysermc.geyser.text.GeyserLocale;
 import org.geysermc.geyser.util.FileUtils;
-import org.geysermc.geyser.util.WebUtils;
+import org.geysermc.geyser.util.ImageUtils;
 
 import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
-import java.io.File;
 import java.io.IOException;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.function.Predicate;
@@ -59,29 +55,14 @@ import java.util.function.Predicate;
 public class SkinProvider {
     private static final boolean ALLOW_THIRD_PARTY_CAPES = GeyserImpl.getInstance().getConfig().isAllowThirdPartyCapes();
     private static ExecutorService EXECUTOR_SERVICE;
+    private static volatile ImageDiskCache IMAGE_CACHE;
 
     static final Skin EMPTY_SKIN;
     static final Cape EMPTY_CAPE = new Cape("", "no-cape", ByteArrays.EMPTY_ARRAY, -1, true);
 
-    private static final Cache<String, Cape> CACHED_JAVA_CAPES = CacheBuilder.newBuilder()
-            .expireAfterAccess(1, TimeUnit.HOURS)
-            .build();
-    private static final Cache<String, Skin> CACHED_JAVA_SKINS = CacheBuilder.newBuilder()
-            .expireAfterAccess(1, TimeUnit.HOURS)
-            .build();
-
-    private static final Cache<String, Cape> CACHED_BEDROCK_CAPES = CacheBuilder.newBuilder()
-            .expireAfterAccess(1, TimeUnit.HOURS)
-            .build();
-    private static final Cache<String, Skin> CACHED_BEDROCK_SKINS = CacheBuilder.newBuilder()
-            .expireAfterAccess(1, TimeUnit.HOURS)
-            .build();
-
     private static final Map<String, CompletableFuture<Cape>> requestedCapes = new ConcurrentHashMap<>();
     private static final Map<String, CompletableFuture<Skin>> requestedSkins = new ConcurrentHashMap<>();
 
-    private static final Map<UUID, SkinGeometry> cachedGeometry = new ConcurrentHashMap<>();
-
     /**
      * Citizens NPCs use UUID version 2, while legitimate Minecraft players use version 4, and
      * offline mode players use version 3.
@@ -145,31 +126,27 @@ public class SkinProvider {
             EXECUTOR_SERVICE.shutdown();
             EXECUTOR_SERVICE = null;
         }
+        if (IMAGE_CACHE != null) {
+            IMAGE_CACHE.close();
+            IMAGE_CACHE = null;
+        }
     }
 
     public static void registerCacheImageTask(GeyserImpl geyser) {
-        // Schedule Daily Image Expiry if we are caching them
+        // Open the image cache and schedule expiry if we are caching them
         if (geyser.getConfig().getCacheImages() > 0) {
-            geyser.getScheduledThread().scheduleAtFixedRate(() -> {
-                File cacheFolder = GeyserImpl.getInstance().getBootstrap().getConfigFolder().resolve("cache").resolve("images").toFile();
-                if (!cacheFolder.exists()) {
-                    return;
-                }
-
-                int count = 0;
-                final long expireTime = ((long) GeyserImpl.getInstance().getConfig().getCacheImages()) * ((long)1000 * 60 * 60 * 24);
-                for (File imageFile : Objects.requireNonNull(cacheFolder.listFiles())) {
-                    if (imageFile.lastModified() < System.currentTimeMillis() - expireTime) {
-                        //noinspection ResultOfMethodCallIgnored
-                        imageFile.delete();
-                        count++;
-                    }
-                }
-
-                if (count > 0) {
-                    GeyserImpl.getInstance().getLogger().debug(String.format("Removed %d cached image files as they have expired", count));
-                }
-            }, 10, 1440, TimeUnit.MINUTES);
+            Path cacheFolder = geyser.getBootstrap().getConfigFolder().resolve("cache").resolve("images");
+            long maxBytes = geyser.getConfig().getCacheImagesSize() * 1024L * 1024L;
+            long expireTime = TimeUnit.DAYS.toMillis(geyser.getConfig().getCacheImages());
+            ImageDiskCache cache;
+            try {
+                cache = ImageDiskCache.open(cacheFolder, maxBytes, expireTime);
+            } catch (IOException e) {
+                geyser.getLogger().error("Could not open the image cache", e);
+                return;
+            }
+            IMAGE_CACHE = cache;
+            geyser.getScheduledThread().scheduleAtFixedRate(cache::maintain, 10, 10, TimeUnit.MINUTES);
         }
     }
 
@@ -177,7 +154,7 @@ public class SkinProvider {
      * Search our cached database for an already existing, translated skin of this Java URL.
      */
     static Skin getCachedSkin(String skinUrl) {
-        return CACHED_JAVA_SKINS.getIfPresent(skinUrl);
+        return SkinStore.getJavaSkin(skinUrl);
     }
 
     /**
@@ -192,11 +169,13 @@ public class SkinProvider {
             // Let's see if this player is a Bedrock player, and if so, let's pull their skin.
             GeyserSession session = GeyserImpl.getInstance().connectionByUuid(uuid);
             if (session != null) {
-                String skinId = session.getClientData().getSkinId();
-                skin = CACHED_BEDROCK_SKINS.getIfPresent(skinId);
+                SkinStore.BedrockSkin bedrockSkin = SkinStore.getBedrockSkin(uuid);
+                if (bedrockSkin != null) {
+                    skin = bedrockSkin.skin();
+                    geometry = bedrockSkin.geometry();
+                }
                 String capeId = session.getClientData().getCapeId();
-                cape = CACHED_BEDROCK_CAPES.getIfPresent(capeId);
-                geometry = cachedGeometry.getOrDefault(uuid, geometry);
+                cape = SkinStore.getBedrockCape(capeId);
             }
         }
 
@@ -222,7 +201,7 @@ public class SkinProvider {
         GeyserSession session = GeyserImpl.getInstance().connectionByUuid(uuid);
         if (session != null) {
             String capeId = session.getClientData().getCapeId();
-            Cape bedrockCape = CACHED_BEDROCK_CAPES.getIfPresent(capeId);
+            Cape bedrockCape = SkinStore.getBedrockCape(capeId);
             if (bedrockCape != null) {
                 return bedrockCape;
             }
@@ -235,7 +214,7 @@ public class SkinProvider {
         if (capeUrl == null) {
             return null;
         }
-        return CACHED_JAVA_CAPES.getIfPresent(capeUrl);
+        return SkinStore.getJavaCape(capeUrl);
     }
 
     static CompletableFuture<SkinProvider.SkinData> requestSkinData(PlayerEntity entity) {
@@ -246,77 +225,64 @@ public class SkinProvider {
         }
 
         return requestSkinAndCape(entity.getUuid(), data.skinUrl(), data.capeUrl())
-                .thenApplyAsync(skinAndCape -> {
-                    try {
-                        Skin skin = skinAndCape.skin();
-                        Cape cape = skinAndCape.cape();
-                        SkinGeometry geometry = data.isAlex() ? SkinGeometry.SLIM : SkinGeometry.WIDE;
-
-                        // Whether we should see if this player has a Bedrock skin we should check for on failure of
-                        // any skin property
-                        boolean checkForBedrock = entity.getUuid().version() != 4;
-
-                        if (cape.failed() && checkForBedrock) {
-                            cape = getCachedBedrockCape(entity.getUuid());
-                        }
+                .thenCompose(skinAndCape -> {
+                    Skin skin = skinAndCape.skin();
+                    Cape cape = skinAndCape.cape();
+                    SkinGeometry geometry = data.isAlex() ? SkinGeometry.SLIM : SkinGeometry.WIDE;
 
-                        if (cape.failed() && ALLOW_THIRD_PARTY_CAPES) {
-                            cape = getOrDefault(requestUnofficialCape(
-                                    cape, entity.getUuid(),
-                                    entity.getUsername(), false
-                            ), EMPTY_CAPE, CapeProvider.VALUES.length * 3);
-                        }
+                    // Whether we should see if this player has a Bedrock skin we should check for on failure of
+                    // any skin property
+                    boolean checkForBedrock = entity.getUuid().version() != 4;
 
-                        boolean isDeadmau5 = "deadmau5".equals(entity.getUsername());
-                        // Not a bedrock player check for ears
-                        if (geometry.failed() && (ALLOW_THIRD_PARTY_EARS || isDeadmau5)) {
-                            boolean isEars;
-
-                            // Its deadmau5, gotta support his skin :)
-                            if (isDeadmau5) {
-                                isEars = true;
-                            } else {
-                                // Get the ears texture for the player
-                                skin = getOrDefault(requestUnofficialEars(
-                                        skin, entity.getUuid(), entity.getUsername(), false
-                                ), skin, 3);
-
-                                isEars = skin.isEars();
-                            }
-
-                            // Does the skin have an ears texture
-                            if (isEars) {
-                                // Get the new geometry
-                                geometry = SkinGeometry.getEars(data.isAlex());
-
-                                // Store the skin and geometry for the ears
-                                storeEarSkin(skin);
-                                storeEarGeometry(entity.getUuid(), data.isAlex());
-                            }
-                        }
+                    if (cape.failed() && checkForBedrock) {
+                        cape = getCachedBedrockCape(entity.getUuid());
+                    }
 
-                        return new SkinData(skin, cape, geometry);
-                    } catch (Exception e) {
-                        GeyserImpl.getInstance().getLogger().error(GeyserLocale.getLocaleStringLog("geyser.skin.fail", entity.getUuid()), e);
+                    CompletableFuture<Cape> capeFuture = CompletableFuture.completedFuture(cape);
+                    if (cape.failed() && ALLOW_THIRD_PARTY_CAPES) {
+                        capeFuture = withTimeout(requestUnofficialCape(
+                                cape, entity.getUuid(),
+                                entity.getUsername(), 0
+                        ), EMPTY_CAPE, CapeProvider.VALUES.length * 3);
                     }
 
-                    return new SkinData(skinAndCape.skin(), skinAndCape.cape(), null);
+                    boolean isDeadmau5 = "deadmau5".equals(entity.getUsername());
+                    CompletableFuture<Skin> skinFuture = CompletableFuture.completedFuture(skin);
+                    // Not a bedrock player check for ears
+                    if (geometry.failed() && ALLOW_THIRD_PARTY_EARS && !isDeadmau5) {
+                        // Get the ears texture for the player
+                        skinFuture = withTimeout(requestUnofficialEars(
+                                skin, entity.getUuid(), entity.getUsername()
+                        ), skin, 3);
+                    }
+
+                    return capeFuture.thenCombine(skinFuture, (finalCape, finalSkin) -> {
+                        SkinGeometry finalGeometry = geometry;
+                        // Its deadmau5, gotta support his skin :)
+                        if (finalGeometry.failed() && (isDeadmau5 || (ALLOW_THIRD_PARTY_EARS && finalSkin.isEars()))) {
+                            // Get the new geometry
+                            finalGeometry = SkinGeometry.getEars(data.isAlex());
+
+                            // Store the skin for the ears
+                            storeEarSkin(finalSkin);
+                        }
+                        return new SkinData(finalSkin, finalCape, finalGeometry);
+                    }).exceptionally(throwable -> {
+                        GeyserImpl.getInstance().getLogger().error(GeyserLocale.getLocaleStringLog("geyser.skin.fail", entity.getUuid()), throwable);
+                        return new SkinData(skinAndCape.skin(), skinAndCape.cape(), null);
+                    });
                 });
     }
 
     private static CompletableFuture<SkinAndCape> requestSkinAndCape(UUID playerId, String skinUrl, String capeUrl) {
-        return CompletableFuture.supplyAsync(() -> {
-            long time = System.currentTimeMillis();
-
-            CapeProvider provider = capeUrl != null ? CapeProvider.MINECRAFT : null;
-            SkinAndCape skinAndCape = new SkinAndCape(
-                    getOrDefault(requestSkin(playerId, skinUrl, false), EMPTY_SKIN, 5),
-                    getOrDefault(requestCape(capeUrl, provider, false), EMPTY_CAPE, 5)
-            );
+        long time = System.currentTimeMillis();
 
-            GeyserImpl.getInstance().getLogger().debug("Took " + (System.currentTimeMillis() - time) + "ms for " + playerId);
-            return skinAndCape;
-        }, getExecutorService());
+        CapeProvider provider = capeUrl != null ? CapeProvider.MINECRAFT : null;
+        return withTimeout(requestSkin(playerId, skinUrl, false), EMPTY_SKIN, 5)
+                .thenCombine(withTimeout(requestCape(capeUrl, provider), EMPTY_CAPE, 5), (skin, cape) -> {
+                    GeyserImpl.getInstance().getLogger().debug("Took " + (System.currentTimeMillis() - time) + "ms for " + playerId);
+                    return new SkinAndCape(skin, cape);
+                });
     }
 
     static CompletableFuture<Skin> requestSkin(UUID playerId, String textureUrl, boolean newThread) {
@@ -327,88 +293,99 @@ public class SkinProvider {
             return requestedSkin;
         }
 
-        Skin cachedSkin = CACHED_JAVA_SKINS.getIfPresent(textureUrl);
+        Skin cachedSkin = SkinStore.getJavaSkin(textureUrl);
         if (cachedSkin != null) {
             return CompletableFuture.completedFuture(cachedSkin);
         }
 
-        CompletableFuture<Skin> future;
-        if (newThread) {
-            future = CompletableFuture.supplyAsync(() -> supplySkin(playerId, textureUrl), getExecutorService())
-                    .whenCompleteAsync((skin, throwable) -> {
-                        skin.updated = true;
-                        CACHED_JAVA_SKINS.put(textureUrl, skin);
-                        requestedSkins.remove(textureUrl);
-                    });
-            requestedSkins.put(textureUrl, future);
-        } else {
-            Skin skin = supplySkin(playerId, textureUrl);
-            future = CompletableFuture.completedFuture(skin);
-            CACHED_JAVA_SKINS.put(textureUrl, skin);
+        CompletableFuture<Skin> future = new CompletableFuture<>();
+        requestedSkin = requestedSkins.putIfAbsent(textureUrl, future);
+        if (requestedSkin != null) {
+            return requestedSkin;
         }
+
+        requestImageData(textureUrl, null)
+                .handle((data, throwable) -> {
+                    if (throwable != null) {
+                        return new Skin(playerId, "empty", EMPTY_SKIN.getSkinData(), System.currentTimeMillis(), false, false);
+                    }
+                    return new Skin(playerId, textureUrl, data, System.currentTimeMillis(), false, false);
+                })
+                .thenAccept(skin -> {
+                    skin.updated = newThread;
+                    SkinStore.putJavaSkin(textureUrl, skin);
+                    requestedSkins.remove(textureUrl);
+                    future.complete(skin);
+                });
         return future;
     }
 
-    private static CompletableFuture<Cape> requestCape(String capeUrl, CapeProvider provider, boolean newThread) {
+    private static CompletableFuture<Cape> requestCape(String capeUrl, CapeProvider provider) {
         if (capeUrl == null || capeUrl.isEmpty()) return CompletableFuture.completedFuture(EMPTY_CAPE);
         CompletableFuture<Cape> requestedCape = requestedCapes.get(capeUrl);
         if (requestedCape != null) {
             return requestedCape;
         }
 
-        Cape cachedCape = CACHED_JAVA_CAPES.getIfPresent(capeUrl);
+        Cape cachedCape = SkinStore.getJavaCape(capeUrl);
         if (cachedCape != null) {
             return CompletableFuture.completedFuture(cachedCape);
         }
 
-        CompletableFuture<Cape> future;
-        if (newThread) {
-            future = CompletableFuture.supplyAsync(() -> supplyCape(capeUrl, provider), getExecutorService())
-                    .whenCompleteAsync((cape, throwable) -> {
-                        CACHED_JAVA_CAPES.put(capeUrl, cape);
-                        requestedCapes.remove(capeUrl);
-                    });
-            requestedCapes.put(capeUrl, future);
-        } else {
-            Cape cape = supplyCape(capeUrl, provider); // blocking
-            future = CompletableFuture.completedFuture(cape);
-            CACHED_JAVA_CAPES.put(capeUrl, cape);
+        CompletableFuture<Cape> future = new CompletableFuture<>();
+        requestedCape = requestedCapes.putIfAbsent(capeUrl, future);
+        if (requestedCape != null) {
+            return requestedCape;
         }
+
+        requestImageData(capeUrl, provider)
+                .exceptionally(throwable -> EMPTY_CAPE.capeData())
+                .thenAccept(capeData -> {
+                    String[] urlSection = capeUrl.split("/"); // A real url is expected at this stage
+
+                    Cape cape = new Cape(
+                            capeUrl,
+                            urlSection[urlSection.length - 1], // get the texture id and use it as cape id
+                            capeData,
+                            System.currentTimeMillis(),
+                            capeData.length == 0
+                    );
+                    SkinStore.putJavaCape(capeUrl, cape);
+                    requestedCapes.remove(capeUrl);
+                    future.complete(cape);
+                });
         return future;
     }
 
+    /**
+     * Tries each third-party cape provider in turn, starting at the given one, until one has a cape for this player
+     */
     private static CompletableFuture<Cape> requestUnofficialCape(Cape officialCape, UUID playerId,
-                                                                String username, boolean newThread) {
-        if (officialCape.failed() && ALLOW_THIRD_PARTY_CAPES) {
-            for (CapeProvider provider : CapeProvider.VALUES) {
-                if (provider.type != CapeUrlType.USERNAME && IS_NPC.test(playerId)) {
-                    continue;
-                }
-
-                Cape cape1 = getOrDefault(
-                        requestCape(provider.getUrlFor(playerId, username), provider, newThread),
-                        EMPTY_CAPE, 4
-                );
-                if (!cape1.failed()) {
-                    return CompletableFuture.completedFuture(cape1);
-                }
+                                                                String username, int providerIndex) {
+        for (int i = providerIndex; i < CapeProvider.VALUES.length; i++) {
+            CapeProvider provider = CapeProvider.VALUES[i];
+            if (provider.type != CapeUrlType.USERNAME && IS_NPC.test(playerId)) {
+                continue;
             }
+
+            int nextIndex = i + 1;
+            return withTimeout(requestCape(provider.getUrlFor(playerId, username), provider), EMPTY_CAPE, 4)
+                    .thenCompose(cape -> {
+                        if (!cape.failed()) {
+                            return CompletableFuture.completedFuture(cape);
+                        }
+                        return requestUnofficialCape(officialCape, playerId, username, nextIndex);
+                    });
         }
         return CompletableFuture.completedFuture(officialCape);
     }
 
-    private static CompletableFuture<Skin> requestEars(String earsUrl, boolean newThread, Skin skin) {
+    private static CompletableFuture<Skin> requestEars(String earsUrl, Skin skin) {
         if (earsUrl == null || earsUrl.isEmpty()) return CompletableFuture.completedFuture(skin);
 
-        CompletableFuture<Skin> future;
-        if (newThread) {
-            future = CompletableFuture.supplyAsync(() -> supplyEars(skin, earsUrl), getExecutorService())
-                    .whenCompleteAsync((outSkin, throwable) -> { });
-        } else {
-            Skin ears = supplyEars(skin, earsUrl); // blocking
-            future = CompletableFuture.completedFuture(ears);
-        }
-        return future;
+        return SkinFetcher.fetch(earsUrl)
+                .thenApply(body -> supplyEars(skin, body))
+                .exceptionally(throwable -> skin);
     }
 
     /**
@@ -417,40 +394,35 @@ public class SkinProvider {
      * @param officialSkin The current players skin
      * @param playerId The players UUID
      * @param username The players username
-     * @param newThread Should we start in a new thread
      * @return The updated skin with ears
      */
-    private static CompletableFuture<Skin> requestUnofficialEars(Skin officialSkin, UUID playerId, String username, boolean newThread) {
+    private static CompletableFuture<Skin> requestUnofficialEars(Skin officialSkin, UUID playerId, String username) {
+        CompletableFuture<Skin> future = CompletableFuture.completedFuture(officialSkin);
         for (EarsProvider provider : EarsProvider.VALUES) {
             if (provider.type != CapeUrlType.USERNAME && IS_NPC.test(playerId)) {
                 continue;
             }
 
-            Skin skin1 = getOrDefault(
-                    requestEars(provider.getUrlFor(playerId, username), newThread, officialSkin),
-                    officialSkin, 4
-            );
-            if (skin1.isEars()) {
-                return CompletableFuture.completedFuture(skin1);
-            }
+            future = future.thenCompose(skin -> {
+                if (skin.isEars()) {
+                    return CompletableFuture.completedFuture(skin);
+                }
+                return withTimeout(requestEars(provider.getUrlFor(playerId, username), officialSkin), officialSkin, 4);
+            });
         }
 
-        return CompletableFuture.completedFuture(officialSkin);
+        return future;
     }
 
-    static void storeBedrockSkin(UUID playerID, String skinId, byte[] skinData) {
-        Skin skin = new Skin(playerID, skinId, skinData, System.currentTimeMillis(), true, false);
-        CACHED_BEDROCK_SKINS.put(skin.getTextureUrl(), skin);
+    static void storeBedrockSkin(UUID playerID, String skinId, byte[] skinData, byte[] geometryName, byte[] geometryData) {
+        Skin skin = new Skin(playerID, skinId, SkinStore.intern(skinData), System.currentTimeMillis(), true, false);
+        SkinGeometry geometry = new SkinGeometry(SkinStore.intern(new String(geometryName)), SkinStore.intern(new String(geometryData)), false);
+        SkinStore.putBedrockSkin(playerID, new SkinStore.BedrockSkin(skin, geometry));
     }
 
     static void storeBedrockCape(String capeId, byte[] capeData) {
-        Cape cape = new Cape(capeId, capeId, capeData, System.currentTimeMillis(), false);
-        CACHED_BEDROCK_CAPES.put(capeId, cape);
-    }
-
-    static void storeBedrockGeometry(UUID playerID, byte[] geometryName, byte[] geometryData) {
-        SkinGeometry geometry = new SkinGeometry(new String(geometryName), new String(geometryData), false);
-        cachedGeometry.put(playerID, geometry);
+        Cape cape = new Cape(capeId, capeId, SkinStore.intern(capeData), System.currentTimeMillis(), false);
+        SkinStore.putBedrockCape(capeId, cape);
     }
 
     /**
@@ -459,57 +431,20 @@ public class SkinProvider {
      * @param skin The skin to cache
      */
     public static void storeEarSkin(Skin skin) {
-        CACHED_JAVA_SKINS.put(skin.getTextureUrl(), skin);
-    }
-
-    /**
-     * Stores the geometry for a Java player with ears
-     *
-     * @param playerID The UUID to cache it against
-     * @param isSlim If the player is using an slim base
-     */
-    private static void storeEarGeometry(UUID playerID, boolean isSlim) {
-        cachedGeometry.put(playerID, SkinGeometry.getEars(isSlim));
-    }
-
-    private static Skin supplySkin(UUID uuid, String textureUrl) {
-        try {
-            byte[] skin = requestImageData(textureUrl, null);
-            return new Skin(uuid, textureUrl, skin, System.currentTimeMillis(), false, false);
-        } catch (Exception ignored) {} // just ignore I guess
-
-        return new Skin(uuid, "empty", EMPTY_SKIN.getSkinData(), System.currentTimeMillis(), false, false);
-    }
-
-    private static Cape supplyCape(String capeUrl, CapeProvider provider) {
-        byte[] cape = EMPTY_CAPE.capeData();
-        try {
-            cape = requestImageData(capeUrl, provider);
-        } catch (Exception ignored) {
-        } // just ignore I guess
-
-        String[] urlSection = capeUrl.split("/"); // A real url is expected at this stage
-
-        return new Cape(
-                capeUrl,
-                urlSection[urlSection.length - 1], // get the texture id and use it as cape id
-                cape,
-                System.currentTimeMillis(),
-                cape.length == 0
-        );
+        SkinStore.putJavaSkin(skin.getTextureUrl(), skin);
     }
 
     /**
-     * Get the ears texture and place it on the skin from the given URL
+     * Place the given ears texture on the skin
      *
      * @param existingSkin The players current skin
-     * @param earsUrl The URL to get the ears texture from
+     * @param earsImage The downloaded ears texture
      * @return The updated skin with ears
      */
-    private static Skin supplyEars(Skin existingSkin, String earsUrl) {
+    private static Skin supplyEars(Skin existingSkin, byte[] earsImage) {
         try {
             // Get the ears texture
-            BufferedImage ears = ImageIO.read(new URL(earsUrl));
+            BufferedImage ears = ImageIO.read(new ByteArrayInputStream(earsImage));
             if (ears == null) throw new NullPointerException();
 
             // Convert the skin data to a BufferedImage
@@ -523,7 +458,7 @@ public class SkinProvider {
             g.drawImage(ears, 24, 0, null);
 
             // Turn the buffered image back into an array of bytes
-            byte[] data = bufferedImageToImageData(newSkin);
+            byte[] data = SkinStore.intern(bufferedImageToImageData(newSkin));
             skinImage.flush();
 
             // Create a new skin object with the new infomation
@@ -540,75 +475,85 @@ public class SkinProvider {
         return existingSkin;
     }
 
-    @SuppressWarnings("ResultOfMethodCallIgnored")
+    /**
+     * Blocking version of {@link #requestImageAsync(String, CapeProvider)}.
+     */
     public static BufferedImage requestImage(String imageUrl, CapeProvider provider) throws IOException {
-        BufferedImage image = null;
-
-        // First see if we have a cached file. We also update the modification stamp so we know when the file was last used
-        File imageFile = GeyserImpl.getInstance().getBootstrap().getConfigFolder().resolve("cache").resolve("images").resolve(UUID.nameUUIDFromBytes(imageUrl.getBytes()) + ".png").toFile();
-        if (imageFile.exists()) {
-            try {
-                GeyserImpl.getInstance().getLogger().debug("Reading cached image from file " + imageFile.getPath() + " for " + imageUrl);
-                imageFile.setLastModified(System.currentTimeMillis());
-                image = ImageIO.read(imageFile);
-            } catch (IOException ignored) {}
-        }
-
-        // If no image we download it
-        if (image == null) {
-            image = downloadImage(imageUrl, provider);
-            GeyserImpl.getInstance().getLogger().debug("Downloaded " + imageUrl);
-
-            // Write to cache if we are allowed
-            if (GeyserImpl.getInstance().getConfig().getCacheImages() > 0) {
-                imageFile.getParentFile().mkdirs();
-                try {
-                    ImageIO.write(image, "png", imageFile);
-                    GeyserImpl.getInstance().getLogger().debug("Writing cached skin to file " + imageFile.getPath() + " for " + imageUrl);
-                } catch (IOException e) {
-                    GeyserImpl.getInstance().getLogger().error("Failed to write cached skin to file " + imageFile.getPath() + " for " + imageUrl);
-                }
+        try {
+            return requestImageAsync(imageUrl, provider).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
             }
+            throw new IOException("Failed to request image " + imageUrl, e.getCause());
         }
+    }
 
-        // if the requested image is a cape
-        if (provider != null) {
-            if (image.getWidth() > 64 || image.getHeight() > 32) {
-                // Prevent weirdly-scaled capes from being cut off
-                BufferedImage newImage = new BufferedImage(128, 64, BufferedImage.TYPE_INT_ARGB);
-                Graphics g = newImage.createGraphics();
-                g.drawImage(image, 0, 0, image.getWidth(), image.getHeight(), null);
-                g.dispose();
-                image.flush();
-                image = scale(newImage, 64, 32);
-            } else if (image.getWidth() < 64 || image.getHeight() < 32) {
-                // Bedrock doesn't like smaller-sized capes, either.
-                BufferedImage newImage = new BufferedImage(64, 32, BufferedImage.TYPE_INT_ARGB);
-                Graphics g = newImage.createGraphics();
-                g.drawImage(image, 0, 0, image.getWidth(), image.getHeight(), null);
-                g.dispose();
-                image.flush();
-                image = newImage;
-            }
+    public static CompletableFuture<BufferedImage> requestImageAsync(String imageUrl, CapeProvider provider) {
+        // First see if we have a cached image
+        ImageDiskCache cache = IMAGE_CACHE;
+        CompletableFuture<BufferedImage> cachedFuture;
+        if (cache != null) {
+            cachedFuture = CompletableFuture.supplyAsync(() -> cache.read(imageUrl), getExecutorService());
         } else {
-            // Very rarely, skins can be larger than Minecraft's default.
-            // Bedrock will not render anything above a width of 128.
-            if (image.getWidth() > 128) {
-                // On Height: Scale by the amount we divided width by, or simply cut down to 128
-                image = scale(image, 128, image.getHeight() >= 256 ? (image.getHeight() / (image.getWidth() / 128)) : 128);
+            cachedFuture = CompletableFuture.completedFuture(null);
+        }
+        return cachedFuture.thenCompose(cachedImage -> {
+            if (cachedImage != null) {
+                return CompletableFuture.completedFuture(cachedImage);
             }
 
-            // TODO remove alpha channel
-        }
+            // If no image we download it
+            return downloadImage(imageUrl, provider).thenApply(image -> {
+                GeyserImpl.getInstance().getLogger().debug("Downloaded " + imageUrl);
+
+                // Write to cache if we are allowed
+                if (cache != null) {
+                    cache.write(imageUrl, image);
+                }
+                return image;
+            });
+        }).thenApply(image -> {
+            // if the requested image is a cape
+            if (provider != null) {
+                if (image.getWidth() > 64 || image.getHeight() > 32) {
+                    // Prevent weirdly-scaled capes from being cut off
+                    BufferedImage newImage = new BufferedImage(128, 64, BufferedImage.TYPE_INT_ARGB);
+                    Graphics g = newImage.createGraphics();
+                    g.drawImage(image, 0, 0, image.getWidth(), image.getHeight(), null);
+                    g.dispose();
+                    image.flush();
+                    image = scale(newImage, 64, 32);
+                } else if (image.getWidth() < 64 || image.getHeight() < 32) {
+                    // Bedrock doesn't like smaller-sized capes, either.
+                    BufferedImage newImage = new BufferedImage(64, 32, BufferedImage.TYPE_INT_ARGB);
+                    Graphics g = newImage.createGraphics();
+                    g.drawImage(image, 0, 0, image.getWidth(), image.getHeight(), null);
+                    g.dispose();
+                    image.flush();
+                    image = newImage;
+                }
+            } else {
+                // Very rarely, skins can be larger than Minecraft's default.
+                // Bedrock will not render anything above a width of 128.
+                if (image.getWidth() > 128) {
+                    // On Height: Scale by the amount we divided width by, or simply cut down to 128
+                    image = scale(image, 128, image.getHeight() >= 256 ? (image.getHeight() / (image.getWidth() / 128)) : 128);
+                }
+
+                // TODO remove alpha channel
+            }
 
-        return image;
+            return image;
+        });
     }
 
-    private static byte[] requestImageData(String imageUrl, CapeProvider provider) throws Exception {
-        BufferedImage image = requestImage(imageUrl, provider);
-        byte[] data = bufferedImageToImageData(image);
-        image.flush();
-        return data;
+    private static CompletableFuture<byte[]> requestImageData(String imageUrl, CapeProvider provider) {
+        return requestImageAsync(imageUrl, provider).thenApply(image -> {
+            byte[] data = SkinStore.intern(bufferedImageToImageData(image));
+            image.flush();
+            return data;
+        });
     }
 
     /**
@@ -618,23 +563,21 @@ public class SkinProvider {
      * @return a completable GameProfile with textures included
      */
     public static CompletableFuture<@Nullable String> requestTexturesFromUUID(String uuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                JsonNode node = WebUtils.getJson("https://sessionserver.mojang.com/session/minecraft/profile/" + uuid);
-                JsonNode properties = node.get("properties");
-                if (properties == null) {
-                    GeyserImpl.getInstance().getLogger().debug("No properties found in Mojang response for " + uuid);
-                    return null;
-                }
-                return node.get("properties").get(0).get("value").asText();
-            } catch (Exception e) {
+        return requestJson("https://sessionserver.mojang.com/session/minecraft/profile/" + uuid).handle((node, throwable) -> {
+            if (throwable != null) {
                 GeyserImpl.getInstance().getLogger().debug("Unable to request textures for " + uuid);
                 if (GeyserImpl.getInstance().getConfig().isDebugMode()) {
-                    e.printStackTrace();
+                    throwable.printStackTrace();
                 }
                 return null;
             }
-        }, getExecutorService());
+            JsonNode properties = node.get("properties");
+            if (properties == null) {
+                GeyserImpl.getInstance().getLogger().debug("No properties found in Mojang response for " + uuid);
+                return null;
+            }
+            return properties.get(0).get("value").asText();
+        });
     }
 
     /**
@@ -644,23 +587,21 @@ public class SkinProvider {
      * @return a completable GameProfile with textures included
      */
     public static CompletableFuture<@Nullable String> requestTexturesFromUsername(String username) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                // Offline skin, or no present UUID
-                JsonNode node = WebUtils.getJson("https://api.mojang.com/users/profiles/minecraft/" + username);
-                JsonNode id = node.get("id");
-                if (id == null) {
-                    GeyserImpl.getInstance().getLogger().debug("No UUID found in Mojang response for " + username);
-                    return null;
-                }
-                return id.asText();
-            } catch (Exception e) {
+        // Offline skin, or no present UUID
+        return requestJson("https://api.mojang.com/users/profiles/minecraft/" + username).handle((node, throwable) -> {
+            if (throwable != null) {
                 if (GeyserImpl.getInstance().getConfig().isDebugMode()) {
-                    e.printStackTrace();
+                    throwable.printStackTrace();
                 }
                 return null;
             }
-        }, getExecutorService()).thenCompose(uuid -> {
+            JsonNode id = node.get("id");
+            if (id == null) {
+                GeyserImpl.getInstance().getLogger().debug("No UUID found in Mojang response for " + username);
+                return null;
+            }
+            return id.asText();
+        }).thenCompose(uuid -> {
             if (uuid == null) {
                 return CompletableFuture.completedFuture(null);
             }
@@ -668,27 +609,39 @@ public class SkinProvider {
         });
     }
 
-    private static BufferedImage downloadImage(String imageUrl, CapeProvider provider) throws IOException {
-        BufferedImage image;
-        if (provider == CapeProvider.FIVEZIG) {
-            image = readFiveZigCape(imageUrl);
-        } else {
-            HttpURLConnection con = (HttpURLConnection) new URL(imageUrl).openConnection();
-            con.setRequestProperty("User-Agent", WebUtils.getUserAgent());
-            con.setConnectTimeout(10000);
-            con.setReadTimeout(10000);
+    private static CompletableFuture<JsonNode> requestJson(String url) {
+        return SkinFetcher.fetch(url).thenApply(body -> {
+            try {
+                return GeyserImpl.JSON_MAPPER.readTree(body);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
 
-            image = ImageIO.read(con.getInputStream());
-        }
+    private static CompletableFuture<BufferedImage> downloadImage(String imageUrl, CapeProvider provider) {
+        // Decoding is left to our own threads, so the HTTP client's threads are free for other responses
+        return SkinFetcher.fetch(imageUrl).thenApplyAsync(body -> {
+            try {
+                BufferedImage image;
+                if (provider == CapeProvider.FIVEZIG) {
+                    image = readFiveZigCape(body);
+                } else {
+                    image = ImageIO.read(new ByteArrayInputStream(body));
+                }
 
-        if (image == null) {
-            throw new IllegalArgumentException("Failed to read image from: %s (cape provider=%s)".formatted(imageUrl, provider));
-        }
-        return image;
+                if (image == null) {
+                    throw new IllegalArgumentException("Failed to read image from: %s (cape provider=%s)".formatted(imageUrl, provider));
+                }
+                return image;
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, getExecutorService());
     }
 
-    private static @Nullable BufferedImage readFiveZigCape(String url) throws IOException {
-        JsonNode element = GeyserImpl.JSON_MAPPER.readTree(WebUtils.getBody(url));
+    private static @Nullable BufferedImage readFiveZigCape(byte[] body) throws IOException {
+        JsonNode element = GeyserImpl.JSON_MAPPER.readTree(body);
         if (element != null && element.isObject()) {
             JsonNode capeElement = element.get("d");
             if (capeElement == null || capeElement.isNull()) return null;
@@ -698,27 +651,11 @@ public class SkinProvider {
     }
 
     public static BufferedImage scale(BufferedImage bufferedImage, int newWidth, int newHeight) {
-        BufferedImage resized = new BufferedImage(newWidth, newHeight, BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g2 = resized.createGraphics();
-        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
-        g2.drawImage(bufferedImage, 0, 0, newWidth, newHeight, null);
-        g2.dispose();
+        BufferedImage resized = ImageUtils.scale(bufferedImage, newWidth, newHeight);
         bufferedImage.flush();
         return resized;
     }
 
-    /**
-     * Get the RGBA int for a given index in some image data
-     *
-     * @param index Index to get
-     * @param data Image data to find in
-     * @return An int representing RGBA
-     */
-    private static int getRGBA(int index, byte[] data) {
-        return (data[index] & 0xFF) << 16 | (data[index + 1] & 0xFF) << 8 |
-                data[index + 2] & 0xFF | (data[index + 3] & 0xFF) << 24;
-    }
-
     /**
      * Convert a byte[] to a BufferedImage
      *
@@ -728,16 +665,7 @@ public class SkinProvider {
      * @return The converted BufferedImage
      */
     public static BufferedImage imageDataToBufferedImage(byte[] imageData, int imageWidth, int imageHeight) {
-        BufferedImage image = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_ARGB);
-        int index = 0;
-        for (int y = 0; y < imageHeight; y++) {
-            for (int x = 0; x < imageWidth; x++) {
-                image.setRGB(x, y, getRGBA(index, imageData));
-                index += 4;
-            }
-        }
-
-        return image;
+        return ImageUtils.fromRgba(imageData, imageWidth, imageHeight);
     }
 
     /**
@@ -747,17 +675,7 @@ public class SkinProvider {
      * @return The converted byte[]
      */
     public static byte[] bufferedImageToImageData(BufferedImage image) {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(image.getWidth() * 4 + image.getHeight() * 4);
-        for (int y = 0; y < image.getHeight(); y++) {
-            for (int x = 0; x < image.getWidth(); x++) {
-                int rgba = image.getRGB(x, y);
-                outputStream.write((rgba >> 16) & 0xFF);
-                outputStream.write((rgba >> 8) & 0xFF);
-                outputStream.write(rgba & 0xFF);
-                outputStream.write((rgba >> 24) & 0xFF);
-            }
-        }
-        return outputStream.toByteArray();
+        return ImageUtils.toRgba(image);
     }
 
     public static <T> T getOrDefault(CompletableFuture<T> future, T defaultValue, int timeoutInSeconds) {
@@ -767,6 +685,16 @@ public class SkinProvider {
         return defaultValue;
     }
 
+    /**
+     * @return a future that completes with the default value if the given one fails or takes longer than the timeout,
+     * without completing the given future, as it may be shared with other requests
+     */
+    static <T> CompletableFuture<T> withTimeout(CompletableFuture<T> future, T defaultValue, int timeoutInSeconds) {
+        return future.copy()
+                .completeOnTimeout(defaultValue, timeoutInSeconds, TimeUnit.SECONDS)
+                .exceptionally(throwable -> defaultValue);
+    }
+
     public record SkinAndCape(Skin skin, Cape cape) {
     }
 
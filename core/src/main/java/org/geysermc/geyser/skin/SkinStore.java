@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2019-2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.skin;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.geysermc.geyser.GeyserImpl;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds all translated skins, capes and Bedrock geometry under one shared byte budget, evicting the least recently used
+ * entries first once it is exceeded.
+ * <p>
+ * Image data and geometry are interned by content, so many players with the same default skin, cape or geometry
+ * share one copy of it. The budget is applied before this deduplication: an image shared by several entries is counted
+ * once for each of them, so the memory actually held is at most the budget, and often less.
+ */
+public final class SkinStore {
+    private static final long MEGABYTE = 1024L * 1024L;
+
+    private static final Cache<Key, Object> ENTRIES;
+    private static final AtomicLong WEIGHTED_BYTES = new AtomicLong();
+
+    /**
+     * Weakly holds every interned image, so it is shared for as long as any entry or session still uses it
+     */
+    private static final Cache<BlobKey, byte[]> BLOBS = CacheBuilder.newBuilder()
+            .weakValues()
+            .build();
+    private static final Interner<String> STRINGS = Interners.newWeakInterner();
+    private static final AtomicLong DEDUPLICATED_BYTES = new AtomicLong();
+
+    static {
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
+                .expireAfterAccess(1, TimeUnit.HOURS)
+                .recordStats();
+        int budget = GeyserImpl.getInstance().getConfig().getSkinCacheSize();
+        if (budget > 0) {
+            builder.maximumWeight(budget * MEGABYTE)
+                    .weigher((Key key, Object value) -> weigh(value));
+        }
+        ENTRIES = builder
+                .removalListener(notification -> WEIGHTED_BYTES.addAndGet(-weigh(notification.getValue())))
+                .build();
+    }
+
+    private SkinStore() {
+    }
+
+    static @Nullable SkinProvider.Skin getJavaSkin(String textureUrl) {
+        return (SkinProvider.Skin) ENTRIES.getIfPresent(new Key(Type.JAVA_SKIN, textureUrl));
+    }
+
+    static void putJavaSkin(String textureUrl, SkinProvider.Skin skin) {
+        put(new Key(Type.JAVA_SKIN, textureUrl), skin);
+    }
+
+    static @Nullable SkinProvider.Cape getJavaCape(String capeUrl) {
+        return (SkinProvider.Cape) ENTRIES.getIfPresent(new Key(Type.JAVA_CAPE, capeUrl));
+    }
+
+    static void putJavaCape(String capeUrl, SkinProvider.Cape cape) {
+        put(new Key(Type.JAVA_CAPE, capeUrl), cape);
+    }
+
+    static @Nullable BedrockSkin getBedrockSkin(UUID uuid) {
+        return (BedrockSkin) ENTRIES.getIfPresent(new Key(Type.BEDROCK_SKIN, uuid));
+    }
+
+    static void putBedrockSkin(UUID uuid, BedrockSkin skin) {
+        put(new Key(Type.BEDROCK_SKIN, uuid), skin);
+    }
+
+    static @Nullable SkinProvider.Cape getBedrockCape(String capeId) {
+        return (SkinProvider.Cape) ENTRIES.getIfPresent(new Key(Type.BEDROCK_CAPE, capeId));
+    }
+
+    static void putBedrockCape(String capeId, SkinProvider.Cape cape) {
+        put(new Key(Type.BEDROCK_CAPE, capeId), cape);
+    }
+
+    private static void put(Key key, Object value) {
+        WEIGHTED_BYTES.addAndGet(weigh(value));
+        ENTRIES.put(key, value);
+    }
+
+    /**
+     * @return an array with the same content as the given one, shared with every other caller of this method
+     */
+    static byte[] intern(byte[] data) {
+        if (data.length == 0) {
+            return data;
+        }
+        BlobKey key = new BlobKey(data.length, Arrays.hashCode(data));
+        byte[] existing = BLOBS.asMap().putIfAbsent(key, data);
+        if (existing == null) {
+            return data;
+        }
+        if (!Arrays.equals(existing, data)) {
+            // Hash collision - keep the first one shared
+            return data;
+        }
+        DEDUPLICATED_BYTES.addAndGet(data.length);
+        return existing;
+    }
+
+    /**
+     * @return a string equal to the given one, shared with every other caller of this method
+     */
+    static String intern(String string) {
+        return STRINGS.intern(string);
+    }
+
+    private static int weigh(@Nullable Object value) {
+        if (value instanceof BedrockSkin bedrockSkin) {
+            return weigh(bedrockSkin.skin()) + weigh(bedrockSkin.geometry());
+        }
+        if (value instanceof SkinProvider.Skin skin) {
+            return skin.getSkinData().length;
+        }
+        if (value instanceof SkinProvider.Cape cape) {
+            return cape.capeData().length;
+        }
+        if (value instanceof SkinProvider.SkinGeometry geometry) {
+            return geometry.geometryName().length() + geometry.geometryData().length();
+        }
+        return 0;
+    }
+
+    public static long getEntryCount() {
+        return ENTRIES.size();
+    }
+
+    /**
+     * @return the bytes held by all entries, counting images that are shared between entries once per entry
+     */
+    public static long getWeightedBytes() {
+        return WEIGHTED_BYTES.get();
+    }
+
+    /**
+     * @return the bytes that did not need to be kept a second time because identical content was already stored
+     */
+    public static long getDeduplicatedBytes() {
+        return DEDUPLICATED_BYTES.get();
+    }
+
+    public static CacheStats getStats() {
+        return ENTRIES.stats();
+    }
+
+    private enum Type {
+        JAVA_SKIN,
+        JAVA_CAPE,
+        BEDROCK_SKIN,
+        BEDROCK_CAPE
+    }
+
+    private record Key(Type type, Object id) {
+    }
+
+    /**
+     * The skin of a Bedrock player, kept together with its geometry so that neither is evicted without the other.
+     */
+    record BedrockSkin(SkinProvider.Skin skin, SkinProvider.SkinGeometry geometry) {
+    }
+
+    private record BlobKey(int length, int hash) {
+    }
+}
@@ -25,7 +25,6 @@
 
 package org.geysermc.geyser.translator.collision;
 
-import org.cloudburstmc.math.vector.Vector3d;
 import org.cloudburstmc.math.vector.Vector3i;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -94,9 +93,9 @@ public class BlockCollision {
             // This fixes NoCheatPlus's Passable check
             // This check doesn't allow players right up against the block, so they must be pushed slightly away
             if (b.checkIntersection(x, y, z, playerCollision)) {
-                Vector3d relativePlayerPosition = Vector3d.from(playerCollision.getMiddleX() - x,
-                        playerCollision.getMiddleY() - y,
-                        playerCollision.getMiddleZ() - z);
+                double relativePlayerX = playerCollision.getMiddleX() - x;
+                double relativePlayerY = playerCollision.getMiddleY() - y;
+                double relativePlayerZ = playerCollision.getMiddleZ() - z;
 
                 // The ULP should give an upper bound on the floating point error
                 double xULP = Math.ulp((float) Math.max(Math.abs(playerCollision.getMiddleX()) + playerCollision.getSizeX() / 2.0, Math.abs(x) + 1));
@@ -106,31 +105,31 @@ public class BlockCollision {
                 double zPushAwayTolerance = Math.max(pushAwayTolerance, zULP);
 
                 double northFaceZPos = b.getMiddleZ() - (b.getSizeZ() / 2);
-                double translateDistance = northFaceZPos - relativePlayerPosition.getZ() - (playerCollision.getSizeZ() / 2);
+                double translateDistance = northFaceZPos - relativePlayerZ - (playerCollision.getSizeZ() / 2);
                 if (Math.abs(translateDistance) < zPushAwayTolerance) {
                     playerCollision.translate(0, 0, translateDistance);
                 }
 
                 double southFaceZPos = b.getMiddleZ() + (b.getSizeZ() / 2);
-                translateDistance = southFaceZPos - relativePlayerPosition.getZ() + (playerCollision.getSizeZ() / 2);
+                translateDistance = southFaceZPos - relativePlayerZ + (playerCollision.getSizeZ() / 2);
                 if (Math.abs(translateDistance) < zPushAwayTolerance) {
                     playerCollision.translate(0, 0, translateDistance);
                 }
 
                 double eastFaceXPos = b.getMiddleX() + (b.getSizeX() / 2);
-                translateDistance = eastFaceXPos - relativePlayerPosition.getX() + (playerCollision.getSizeX() / 2);
+                translateDistance = eastFaceXPos - relativePlayerX + (playerCollision.getSizeX() / 2);
                 if (Math.abs(translateDistance) < xPushAwayTolerance) {
                     playerCollision.translate(translateDistance, 0, 0);
                 }
 
                 double westFaceXPos = b.getMiddleX() - (b.getSizeX() / 2);
-                translateDistance = westFaceXPos - relativePlayerPosition.getX() - (playerCollision.getSizeX() / 2);
+                translateDistance = westFaceXPos - relativePlayerX - (playerCollision.getSizeX() / 2);
                 if (Math.abs(translateDistance) < xPushAwayTolerance) {
                     playerCollision.translate(translateDistance, 0, 0);
                 }
 
                 double bottomFaceYPos = b.getMiddleY() - (b.getSizeY() / 2);
-                translateDistance = bottomFaceYPos - relativePlayerPosition.getY() - (playerCollision.getSizeY() / 2);
+                translateDistance = bottomFaceYPos - relativePlayerY - (playerCollision.getSizeY() / 2);
                 if (Math.abs(translateDistance) < pushAwayTolerance) {
                     playerCollision.translate(0, translateDistance, 0);
                 }
@@ -35,6 +35,7 @@ import com.github.steveice10.mc.protocol.data.game.recipe.data.SmithingTransform
 import com.github.steveice10.mc.protocol.data.game.recipe.data.StoneCuttingRecipeData;
 import com.github.steveice10.mc.protocol.packet.ingame.clientbound.ClientboundUpdateRecipesPacket;
 import it.unimi.dsi.fastutil.ints.*;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import org.cloudburstmc.protocol.bedrock.data.definitions.ItemDefinition;
@@ -52,7 +53,10 @@ import org.geysermc.geyser.inventory.recipe.GeyserRecipe;
 import org.geysermc.geyser.inventory.recipe.GeyserShapedRecipe;
 import org.geysermc.geyser.inventory.recipe.GeyserShapelessRecipe;
 import org.geysermc.geyser.inventory.recipe.GeyserStonecutterData;
+import org.geysermc.geyser.inventory.recipe.TranslatedRecipeCache;
+import org.geysermc.geyser.inventory.recipe.TranslatedRecipeCache.TranslatedRecipes;
 import org.geysermc.geyser.inventory.recipe.TrimRecipe;
+import org.geysermc.geyser.network.EncodedPacket;
 import org.geysermc.geyser.registry.Registries;
 import org.geysermc.geyser.registry.type.ItemMapping;
 import org.geysermc.geyser.session.GeyserSession;
@@ -106,11 +110,39 @@ public class JavaUpdateRecipesTranslator extends PacketTranslator<ClientboundUpd
 
     @Override
     public void translate(GeyserSession session, ClientboundUpdateRecipesPacket packet) {
+        // Every player on the same server usually receives the same recipes, so they are only translated once
+        TranslatedRecipes recipes = TranslatedRecipeCache.get(session, packet.getRecipes(), () -> translateRecipes(session, packet));
+
+        // Only send smithing trim recipes if Java/ViaVersion sends them.
+        if (recipes.sendTrimRecipes()) {
+            // BDS sends armor trim templates and materials before the CraftingDataPacket
+            TrimDataPacket trimDataPacket = new TrimDataPacket();
+            trimDataPacket.getPatterns().addAll(TrimRecipe.PATTERNS);
+            trimDataPacket.getMaterials().addAll(TrimRecipe.MATERIALS);
+            session.sendUpstreamPacket(trimDataPacket);
+        }
+        session.setOldSmithingTable(!recipes.sendTrimRecipes());
+        session.sendUpstreamPacket(recipes.craftingData().create());
+
+        session.getLastRecipeNetId().set(recipes.lastRecipeNetId());
+        // Recipes can be added to this map later on, so each session needs its own
+        session.setCraftingRecipes(new Int2ObjectOpenHashMap<>(recipes.craftingRecipes()));
+        session.setStonecutterRecipes(recipes.stonecutterRecipes());
+        Map<String, List<String>> recipeIDs = session.getJavaToBedrockRecipeIds();
+        for (Map.Entry<String, List<String>> entry : recipes.javaToBedrockRecipeIds().entrySet()) {
+            recipeIDs.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        }
+    }
+
+    /**
+     * Translates the recipes without changing the session, so the result can be shared with other sessions.
+     */
+    private TranslatedRecipes translateRecipes(GeyserSession session, ClientboundUpdateRecipesPacket packet) {
         Map<RecipeType, List<RecipeData>> recipeTypes = Registries.CRAFTING_DATA.forVersion(session.getUpstream().getProtocolVersion());
         // Get the last known network ID (first used for the pregenerated recipes) and increment from there.
         int netId = InventoryUtils.LAST_RECIPE_NET_ID + 1;
         boolean sendTrimRecipes = false;
-        Map<String, List<String>> recipeIDs = session.getJavaToBedrockRecipeIds();
+        Map<String, List<String>> recipeIDs = new Object2ObjectOpenHashMap<>();
         Int2ObjectMap<GeyserRecipe> recipeMap = new Int2ObjectOpenHashMap<>(Registries.RECIPES.forVersion(session.getUpstream().getProtocolVersion()));
         Int2ObjectMap<List<StoneCuttingRecipeData>> unsortedStonecutterData = new Int2ObjectOpenHashMap<>();
         CraftingDataPacket craftingDataPacket = new CraftingDataPacket();
@@ -140,7 +172,7 @@ public class JavaUpdateRecipesTranslator extends PacketTranslator<ClientboundUpd
                                 Arrays.asList(inputs), Collections.singletonList(output), uuid, "crafting_table", 0, netId));
                         recipeMap.put(netId++, new GeyserShapelessRecipe(shapelessRecipeData));
                     }
-                    addRecipeIdentifier(session, recipe.getIdentifier(), bedrockRecipeIDs);
+                    addRecipeIdentifier(recipeIDs, recipe.getIdentifier(), bedrockRecipeIDs);
                 }
                 case CRAFTING_SHAPED -> {
                     ShapedRecipeData shapedRecipeData = (ShapedRecipeData) recipe.getData();
@@ -165,7 +197,7 @@ public class JavaUpdateRecipesTranslator extends PacketTranslator<ClientboundUpd
                                 Collections.singletonList(output), uuid, "crafting_table", 0, netId, false));
                         recipeMap.put(netId++, new GeyserShapedRecipe(shapedRecipeData));
                     }
-                    addRecipeIdentifier(session, recipe.getIdentifier(), bedrockRecipeIDs);
+                    addRecipeIdentifier(recipeIDs, recipe.getIdentifier(), bedrockRecipeIDs);
                 }
                 case STONECUTTING -> {
                     StoneCuttingRecipeData stoneCuttingData = (StoneCuttingRecipeData) recipe.getData();
@@ -220,7 +252,7 @@ public class JavaUpdateRecipesTranslator extends PacketTranslator<ClientboundUpd
                 default -> {
                     List<RecipeData> craftingData = recipeTypes.get(recipe.getType());
                     if (craftingData != null) {
-                        addSpecialRecipesIdentifiers(session, recipe, craftingData);
+                        addSpecialRecipesIdentifiers(recipeIDs, recipe, craftingData);
                         craftingDataPacket.getCraftingData().addAll(craftingData);
                     }
                 }
@@ -263,32 +295,23 @@ public class JavaUpdateRecipesTranslator extends PacketTranslator<ClientboundUpd
             }
         }
 
-        session.getLastRecipeNetId().set(netId);
-
-        // Only send smithing trim recipes if Java/ViaVersion sends them.
         if (sendTrimRecipes) {
-            // BDS sends armor trim templates and materials before the CraftingDataPacket
-            TrimDataPacket trimDataPacket = new TrimDataPacket();
-            trimDataPacket.getPatterns().addAll(TrimRecipe.PATTERNS);
-            trimDataPacket.getMaterials().addAll(TrimRecipe.MATERIALS);
-            session.sendUpstreamPacket(trimDataPacket);
-
             // Identical smithing_trim recipe sent by BDS that uses tag-descriptors, as the client seems to ignore the
             // approach of using many default-descriptors (which we do for smithing_transform)
             craftingDataPacket.getCraftingData().add(SmithingTrimRecipeData.of(TrimRecipe.ID,
-                    TrimRecipe.BASE, TrimRecipe.ADDITION, TrimRecipe.TEMPLATE, "smithing_table", session.getLastRecipeNetId().getAndIncrement()));
+                    TrimRecipe.BASE, TrimRecipe.ADDITION, TrimRecipe.TEMPLATE, "smithing_table", netId++));
         } else {
             // manually add recipes for the upgrade template (workaround), since Java pre-1.20 doesn't
-            craftingDataPacket.getCraftingData().addAll(getSmithingTransformRecipes(session));
+            List<RecipeData> smithingTransformRecipes = getSmithingTransformRecipes(session, netId);
+            craftingDataPacket.getCraftingData().addAll(smithingTransformRecipes);
+            netId += smithingTransformRecipes.size();
         }
-        session.setOldSmithingTable(!sendTrimRecipes);
-        session.sendUpstreamPacket(craftingDataPacket);
-        session.setCraftingRecipes(recipeMap);
-        session.setStonecutterRecipes(stonecutterRecipeMap);
-        session.setJavaToBedrockRecipeIds(recipeIDs);
+
+        return new TranslatedRecipes(EncodedPacket.encode(session, craftingDataPacket), sendTrimRecipes, recipeMap,
+                Int2ObjectMaps.unmodifiable(stonecutterRecipeMap), recipeIDs, netId);
     }
 
-    private void addSpecialRecipesIdentifiers(GeyserSession session, Recipe recipe, List<RecipeData> craftingData) {
+    private void addSpecialRecipesIdentifiers(Map<String, List<String>> recipeIDs, Recipe recipe, List<RecipeData> craftingData) {
         String javaRecipeID = recipe.getIdentifier();
 
         switch (recipe.getType()) {
@@ -316,7 +339,7 @@ public class JavaUpdateRecipesTranslator extends PacketTranslator<ClientboundUpd
                 bedrockRecipeIDs.add(((org.cloudburstmc.protocol.bedrock.data.inventory.crafting.recipe.ShapelessRecipeData) data).getId());
             }
         }
-        addRecipeIdentifier(session, javaRecipeID, bedrockRecipeIDs);
+        addRecipeIdentifier(recipeIDs, javaRecipeID, bedrockRecipeIDs);
     }
 
     //TODO: rewrite
@@ -410,8 +433,8 @@ public class JavaUpdateRecipesTranslator extends PacketTranslator<ClientboundUpd
         return combinations;
     }
 
-    private void addRecipeIdentifier(GeyserSession session, String javaIdentifier, List<String> bedrockIdentifiers) {
-        session.getJavaToBedrockRecipeIds().computeIfAbsent(javaIdentifier, k -> new ArrayList<>()).addAll(bedrockIdentifiers);
+    private void addRecipeIdentifier(Map<String, List<String>> recipeIDs, String javaIdentifier, List<String> bedrockIdentifiers) {
+        recipeIDs.computeIfAbsent(javaIdentifier, k -> new ArrayList<>()).addAll(bedrockIdentifiers);
     }
 
     @EqualsAndHashCode
@@ -421,7 +444,7 @@ public class JavaUpdateRecipesTranslator extends PacketTranslator<ClientboundUpd
         int count;
     }
 
-    private List<RecipeData> getSmithingTransformRecipes(GeyserSession session) {
+    private List<RecipeData> getSmithingTransformRecipes(GeyserSession session, int netId) {
         List<RecipeData> recipes = new ArrayList<>();
         ItemMapping template = session.getItemMappings().getStoredItems().upgradeTemplate();
 
@@ -432,7 +455,7 @@ public class JavaUpdateRecipesTranslator extends PacketTranslator<ClientboundUpd
                     getDescriptorFromId(session, "minecraft:netherite_ingot"),
                     ItemData.builder().definition(Objects.requireNonNull(session.getItemMappings().getDefinition(identifier))).count(1).build(),
                     "smithing_table",
-                    session.getLastRecipeNetId().getAndIncrement()));
+                    netId++));
         }
         return recipes;
     }
@@ -104,6 +104,7 @@ public class JavaPlayerInfoUpdateTranslator extends PacketTranslator<Clientbound
         if (actions.contains(PlayerListEntryAction.UPDATE_LISTED)) {
             List<PlayerListPacket.Entry> toAdd = new ArrayList<>();
             List<PlayerListPacket.Entry> toRemove = new ArrayList<>();
+            List<PlayerEntity> toRefresh = new ArrayList<>();
 
             for (PlayerListEntry entry : packet.getEntries()) {
                 PlayerEntity entity = session.getEntityCache().getPlayerEntity(entry.getProfileId());
@@ -115,6 +116,12 @@ public class JavaPlayerInfoUpdateTranslator extends PacketTranslator<Clientbound
                 if (entry.isListed()) {
                     PlayerListPacket.Entry playerListEntry = SkinManager.buildCachedEntry(session, entity);
                     toAdd.add(playerListEntry);
+
+                    if (session.getSkinDeliveryCache().isDeferred(entity)
+                            && session.getEntityCache().getEntityByGeyserId(entity.getGeyserId()) == entity) {
+                        // The entry resets an already spawned player to their default skin
+                        toRefresh.add(entity);
+                    }
                 } else {
                     toRemove.add(new PlayerListPacket.Entry(entity.getTabListUuid()));
                 }
@@ -125,6 +132,10 @@ public class JavaPlayerInfoUpdateTranslator extends PacketTranslator<Clientbound
                 tabListPacket.setAction(PlayerListPacket.Action.ADD);
                 tabListPacket.getEntries().addAll(toAdd);
                 session.sendUpstreamPacket(tabListPacket);
+
+                for (PlayerEntity entity : toRefresh) {
+                    SkinManager.requestAndHandleSkinAndCape(entity, session, null);
+                }
             }
             if (!toRemove.isEmpty()) {
                 PlayerListPacket tabListPacket = new PlayerListPacket();
@@ -22,7 +22,6 @@
  * @author GeyserMC
  * @link https://github.com/GeyserMC/Geyser
  */
-
 package org.geysermc.geyser.translator.protocol.java.level;
 
 import com.github.steveice10.mc.protocol.data.game.chunk.BitStorage;
@@ -45,6 +44,7 @@ import it.unimi.dsi.fastutil.ints.IntList;
 import it.unimi.dsi.fastutil.ints.IntLists;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import org.cloudburstmc.math.vector.Vector3i;
 import org.cloudburstmc.nbt.NBTOutputStream;
@@ -58,12 +58,15 @@ import org.geysermc.geyser.entity.type.ItemFrameEntity;
 import org.geysermc.geyser.level.BedrockDimension;
 import org.geysermc.geyser.level.block.BlockStateValues;
 import org.geysermc.geyser.level.chunk.BlockStorage;
+import org.geysermc.geyser.level.chunk.EncodedChunkCache;
 import org.geysermc.geyser.level.chunk.GeyserChunkSection;
 import org.geysermc.geyser.level.chunk.bitarray.BitArray;
 import org.geysermc.geyser.level.chunk.bitarray.BitArrayVersion;
 import org.geysermc.geyser.level.chunk.bitarray.SingletonBitArray;
-import org.geysermc.geyser.registry.BlockRegistries;
+import org.geysermc.geyser.registry.type.BlockMappings;
+import org.geysermc.geyser.session.ChunkEncodingQueue;
 import org.geysermc.geyser.session.GeyserSession;
+import org.geysermc.geyser.session.cache.ChunkBlobCache;
 import org.geysermc.geyser.translator.level.BiomeTranslator;
 import org.geysermc.geyser.translator.level.block.entity.BedrockOnlyBlockEntity;
 import org.geysermc.geyser.translator.level.block.entity.BlockEntityTranslator;
@@ -73,11 +76,14 @@ import org.geysermc.geyser.translator.protocol.Translator;
 import org.geysermc.geyser.util.BlockEntityUtils;
 import org.geysermc.geyser.util.ChunkUtils;
 import org.geysermc.geyser.util.DimensionUtils;
+import org.geysermc.geyser.util.XXHash64;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import static org.geysermc.geyser.util.ChunkUtils.EMPTY_BLOCK_STORAGE;
 import static org.geysermc.geyser.util.ChunkUtils.EMPTY_CHUNK_SECTION_SIZE;
@@ -86,11 +92,10 @@ import static org.geysermc.geyser.util.ChunkUtils.indexYZXtoXZY;
 @Translator(packet = ClientboundLevelChunkWithLightPacket.class)
 public class JavaLevelChunkWithLightTranslator extends PacketTranslator<ClientboundLevelChunkWithLightPacket> {
     private static final ThreadLocal<ExtendedCollisionsStorage> EXTENDED_COLLISIONS_STORAGE = ThreadLocal.withInitial(ExtendedCollisionsStorage::new);
+    private static final ThreadLocal<SectionScratch> SECTION_SCRATCH = ThreadLocal.withInitial(SectionScratch::new);
 
     @Override
     public void translate(GeyserSession session, ClientboundLevelChunkWithLightPacket packet) {
-        final boolean useExtendedCollisions = !session.getBlockMappings().getExtendedCollisionBoxes().isEmpty();
-
         if (session.isSpawned()) {
             ChunkUtils.updateChunkPosition(session, session.getPlayerEntity().getPosition().toInt());
         }
@@ -98,32 +103,335 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
         // Ensure that, if the player is using lower world heights, the position is not offset
         int yOffset = session.getChunkCache().getChunkMinY();
         int chunkSize = session.getChunkCache().getChunkHeightY();
-        int biomeGlobalPalette = session.getBiomeGlobalPalette();
+
+        ChunkSection[] javaSections;
+        try {
+            javaSections = readSections(session, packet, chunkSize);
+        } catch (IOException e) {
+            session.getGeyser().getLogger().error("IO error while decoding chunk", e);
+            return;
+        }
 
         DataPalette[] javaChunks = new DataPalette[chunkSize];
-        DataPalette[] javaBiomes = new DataPalette[chunkSize];
+        for (int sectionY = 0; sectionY < chunkSize; sectionY++) {
+            javaChunks[sectionY] = javaSections[sectionY].getChunkData();
+        }
+
+        ChunkEncodingQueue encodingQueue = session.getChunkEncodingQueue();
+        // Decided up front, as the chunk cache must not modify sections the encoding task is still reading
+        boolean encodeAsync = encodingQueue.canSubmit();
+
+        if (!session.getErosionHandler().isActive()) {
+            session.getChunkCache().addToCache(packet.getX(), packet.getZ(), javaChunks, packet.getChunkData(), encodeAsync);
+        }
 
         final BlockEntityInfo[] blockEntities = packet.getBlockEntities();
         final List<NbtMap> bedrockBlockEntities = new ObjectArrayList<>(blockEntities.length);
         final List<BlockEntityInfo> lecterns = new ObjectArrayList<>();
-
-        BitSet waterloggedPaletteIds = new BitSet();
-        BitSet bedrockOnlyBlockEntityIds = new BitSet();
+        final List<CustomSkull> customSkulls = new ObjectArrayList<>(0);
 
         BedrockDimension bedrockDimension = session.getChunkCache().getBedrockDimension();
         int maxBedrockSectionY = (bedrockDimension.height() >> 4) - 1;
 
-        int sectionCount;
-        byte[] payload;
-        ByteBuf byteBuf = null;
-        GeyserChunkSection[] sections = new GeyserChunkSection[javaChunks.length - (yOffset + (bedrockDimension.minY() >> 4))];
+        // Block entities depend on session state, so they are always translated here rather than in the encoding task
+        final int chunkBlockX = packet.getX() << 4;
+        final int chunkBlockZ = packet.getZ() << 4;
+        for (BlockEntityInfo blockEntity : blockEntities) {
+            BlockEntityType type = blockEntity.getType();
+            if (type == null) {
+                // As an example: ViaVersion will send -1 if it cannot find the block entity type
+                // Vanilla Minecraft gracefully handles this
+                continue;
+            }
+            CompoundTag tag = blockEntity.getNbt();
+            int x = blockEntity.getX(); // Relative to chunk
+            int y = blockEntity.getY();
+            int z = blockEntity.getZ(); // Relative to chunk
+
+            // Get the Java block state ID from block entity position
+            DataPalette section = javaChunks[(y >> 4) - yOffset];
+            int blockState = section.get(x, y & 0xF, z);
+
+            if (type == BlockEntityType.LECTERN && BlockStateValues.getLecternBookStates().get(blockState)) {
+                // If getLecternBookStates is false, let's just treat it like a normal block entity
+                // Fill in tag with a default value
+                NbtMapBuilder lecternTag = LecternUtils.getBaseLecternTag(x + chunkBlockX, y, z + chunkBlockZ, 1);
+                lecternTag.putCompound("book", NbtMap.builder()
+                                .putByte("Count", (byte) 1)
+                                .putShort("Damage", (short) 0)
+                                .putString("Name", "minecraft:written_book").build());
+                lecternTag.putInt("page", -1);
+                bedrockBlockEntities.add(lecternTag.build());
+                lecterns.add(blockEntity);
+                continue;
+            }
+
+            BlockEntityTranslator blockEntityTranslator = BlockEntityUtils.getBlockEntityTranslator(type);
+            bedrockBlockEntities.add(blockEntityTranslator.getBlockEntityTag(session, type, x + chunkBlockX, y, z + chunkBlockZ, tag, blockState));
+
+            // Check for custom skulls
+            if (session.getPreferencesCache().showCustomSkulls() && type == BlockEntityType.SKULL && tag != null && tag.contains("SkullOwner")) {
+                BlockDefinition blockDefinition = SkullBlockEntityTranslator.translateSkull(session, tag, Vector3i.from(x + chunkBlockX, y, z + chunkBlockZ), blockState);
+                if (blockDefinition != null) {
+                    int bedrockSectionY = (y >> 4) - (bedrockDimension.minY() >> 4);
+                    if (0 <= bedrockSectionY && bedrockSectionY < maxBedrockSectionY) {
+                        // Custom skull is in a section accepted by Bedrock
+                        customSkulls.add(new CustomSkull(x, y, z, blockDefinition.getRuntimeId()));
+                    }
+                }
+            }
+        }
 
+        ChunkBlobCache blobCache = session.getChunkBlobCache();
+        if (encodeAsync) {
+            // The chunk cache copies a section before applying block updates to it, so the task can read the same sections
+            ChunkEncodeTask task = new ChunkEncodeTask(session, packet, javaSections, yOffset, chunkSize, bedrockDimension,
+                    bedrockBlockEntities, customSkulls, blobCache.isEnabled());
+            encodingQueue.submit(task, encoded -> sendChunk(session, packet, encoded, lecterns), encoded -> encoded.payload().release());
+            return;
+        }
+
+        EncodedChunk encoded;
         try {
-            ByteBuf in = Unpooled.wrappedBuffer(packet.getChunkData());
+            encoded = new ChunkEncodeTask(session, packet, javaSections, yOffset, chunkSize, bedrockDimension,
+                    bedrockBlockEntities, customSkulls, blobCache.isEnabled()).call();
+        } catch (IOException e) {
+            session.getGeyser().getLogger().error("IO error while encoding chunk", e);
+            return;
+        }
+        sendChunk(session, packet, encoded, lecterns);
+    }
+
+    private static ChunkSection[] readSections(GeyserSession session, ClientboundLevelChunkWithLightPacket packet, int chunkSize) throws IOException {
+        ByteBuf in = Unpooled.wrappedBuffer(packet.getChunkData());
+        int biomeGlobalPalette = session.getBiomeGlobalPalette();
+        ChunkSection[] javaSections = new ChunkSection[chunkSize];
+        for (int sectionY = 0; sectionY < chunkSize; sectionY++) {
+            javaSections[sectionY] = session.getDownstream().getCodecHelper().readChunkSection(in, biomeGlobalPalette);
+        }
+        return javaSections;
+    }
+
+    /**
+     * Sends the encoded chunk to the client. Always runs on the session's event loop.
+     */
+    private static void sendChunk(GeyserSession session, ClientboundLevelChunkWithLightPacket packet, EncodedChunk encoded, List<BlockEntityInfo> lecterns) {
+        LevelChunkPacket levelChunkPacket = new LevelChunkPacket();
+        levelChunkPacket.setSubChunksLength(encoded.sectionCount());
+        if (encoded.blobIds() != null) {
+            ChunkBlobCache blobCache = session.getChunkBlobCache();
+            for (int i = 0; i < encoded.blobIds().length; i++) {
+                blobCache.addBlob(encoded.blobIds()[i], encoded.blobs()[i]);
+            }
+            levelChunkPacket.setCachingEnabled(true);
+            levelChunkPacket.getBlobIds().addAll(LongArrayList.wrap(encoded.blobIds()));
+        } else {
+            levelChunkPacket.setCachingEnabled(false);
+        }
+        levelChunkPacket.setChunkX(packet.getX());
+        levelChunkPacket.setChunkZ(packet.getZ());
+        levelChunkPacket.setData(encoded.payload()); // Released once the packet has been written
+        levelChunkPacket.setDimension(DimensionUtils.javaToBedrock(encoded.bedrockDimension()));
+        session.sendUpstreamPacket(levelChunkPacket);
+
+        if (!lecterns.isEmpty()) {
+            session.getGeyser().getWorldManager().sendLecternData(session, packet.getX(), packet.getZ(), lecterns);
+        }
+
+        for (Map.Entry<Vector3i, ItemFrameEntity> entry : session.getItemFrameCache().entrySet()) {
+            Vector3i position = entry.getKey();
+            if ((position.getX() >> 4) == packet.getX() && (position.getZ() >> 4) == packet.getZ()) {
+                // Update this item frame so it doesn't get lost in the abyss
+                //TODO optimize
+                entry.getValue().updateBlock(true);
+            }
+        }
+    }
+
+    /**
+     * A player skull with a custom block definition, applied to the Bedrock sections after they have been converted.
+     */
+    private record CustomSkull(int x, int y, int z, int bedrockId) {
+    }
+
+    /**
+     * @param payload a pooled buffer that must either be sent in a packet or released
+     * @param blobIds if blob caching is enabled, the blob IDs of every section followed by the biomes. Otherwise null
+     * @param blobs the blob data matching each blob ID
+     */
+    private record EncodedChunk(int sectionCount, ByteBuf payload, BedrockDimension bedrockDimension, long[] blobIds, byte[][] blobs) {
+    }
+
+    /**
+     * The Bedrock sections and biomes of a chunk after they have been written to a buffer.
+     *
+     * @param offsets the start of each section, then the start and end of the biomes
+     */
+    private record WrittenSections(int sectionCount, int[] offsets, List<NbtMap> bedrockOnlyBlockEntities) {
+    }
+
+    /**
+     * Converts the Java chunk into the Bedrock network format. Only reads session state that does not change while
+     * the player is in a world, so this can safely run outside the session's event loop.
+     */
+    private static final class ChunkEncodeTask implements Callable<EncodedChunk> {
+        private final GeyserSession session;
+        private final ClientboundLevelChunkWithLightPacket packet;
+        private final ChunkSection[] javaSections;
+        private final int yOffset;
+        private final int chunkSize;
+        private final BedrockDimension bedrockDimension;
+        private final List<NbtMap> bedrockBlockEntities;
+        private final List<CustomSkull> customSkulls;
+        private final boolean useBlobCache;
+
+        ChunkEncodeTask(GeyserSession session, ClientboundLevelChunkWithLightPacket packet, ChunkSection[] javaSections,
+                        int yOffset, int chunkSize, BedrockDimension bedrockDimension, List<NbtMap> bedrockBlockEntities,
+                        List<CustomSkull> customSkulls, boolean useBlobCache) {
+            this.session = session;
+            this.packet = packet;
+            this.javaSections = javaSections;
+            this.yOffset = yOffset;
+            this.chunkSize = chunkSize;
+            this.bedrockDimension = bedrockDimension;
+            this.bedrockBlockEntities = bedrockBlockEntities;
+            this.customSkulls = customSkulls;
+            this.useBlobCache = useBlobCache;
+        }
+
+        @Override
+        public EncodedChunk call() throws IOException {
+            EncodedChunkCache sharedCache = session.getGeyser().getEncodedChunkCache();
+            // Custom skulls depend on the player's preferences, so chunks containing them are never shared
+            boolean shareable = sharedCache != null && customSkulls.isEmpty();
+
+            if (!shareable && !useBlobCache) {
+                // Nothing needs the sections on their own, so write everything straight into the payload
+                ByteBuf byteBuf = ByteBufAllocator.DEFAULT.ioBuffer();
+                try {
+                    WrittenSections written = writeSections(byteBuf);
+                    writeBlockEntities(byteBuf, written.bedrockOnlyBlockEntities());
+                    return new EncodedChunk(written.sectionCount(), byteBuf, bedrockDimension, null, null);
+                } catch (Throwable t) {
+                    byteBuf.release();
+                    throw t;
+                }
+            }
+
+            EncodedChunkCache.Entry sections;
+            if (shareable) {
+                byte[] chunkData = packet.getChunkData();
+                EncodedChunkCache.Key key = new EncodedChunkCache.Key(session.getBlockMappings(), bedrockDimension,
+                        session.getBiomeTranslations(), session.getBiomeGlobalPalette(), yOffset, chunkSize,
+                        packet.getX(), packet.getZ(), chunkData.length, XXHash64.hash(chunkData));
+                sections = sharedCache.get(key, this::encodeSections);
+            } else {
+                sections = encodeSections();
+            }
+
+            byte[][] encodedSections = sections.sections();
+            int size = 1; // Border blocks
+            if (!useBlobCache) {
+                for (byte[] section : encodedSections) {
+                    size += section.length;
+                }
+                size += sections.biomes().length;
+            }
+            size += (bedrockBlockEntities.size() + sections.bedrockOnlyBlockEntities().size()) * 64; // Conservative estimate of 64 bytes per tile entity
+
+            ByteBuf byteBuf = ByteBufAllocator.DEFAULT.ioBuffer(size);
+            try {
+                if (!useBlobCache) {
+                    for (byte[] section : encodedSections) {
+                        byteBuf.writeBytes(section);
+                    }
+                    byteBuf.writeBytes(sections.biomes());
+                }
+                // Otherwise, sections and biomes are sent as blobs; only border blocks and block entities remain in the payload
+                writeBlockEntities(byteBuf, sections.bedrockOnlyBlockEntities());
+            } catch (Throwable t) {
+                byteBuf.release();
+                throw t;
+            }
+
+            if (!useBlobCache) {
+                return new EncodedChunk(encodedSections.length, byteBuf, bedrockDimension, null, null);
+            }
+            // Each section is its own blob, so identical sections are only ever downloaded once. All biome data is one final blob
+            byte[][] blobs = Arrays.copyOf(encodedSections, encodedSections.length + 1);
+            blobs[encodedSections.length] = sections.biomes();
+            return new EncodedChunk(encodedSections.length, byteBuf, bedrockDimension, sections.blobIds(), blobs);
+        }
+
+        /**
+         * Writes the border blocks, then the translated Java block entities followed by Bedrock-only block entities.
+         */
+        private void writeBlockEntities(ByteBuf byteBuf, List<NbtMap> bedrockOnlyBlockEntities) throws IOException {
+            byteBuf.writeByte(0); // Border blocks - Edu edition only
+
+            // Encode tile entities into buffer
+            NBTOutputStream nbtStream = NbtUtils.createNetworkWriter(new ByteBufOutputStream(byteBuf));
+            for (NbtMap blockEntity : bedrockBlockEntities) {
+                nbtStream.writeTag(blockEntity);
+            }
+            for (NbtMap blockEntity : bedrockOnlyBlockEntities) {
+                nbtStream.writeTag(blockEntity);
+            }
+        }
+
+        /**
+         * Converts and encodes the chunk sections and biomes, which are the expensive and session-independent part of a chunk.
+         * Blob IDs are always computed, as shared entries may be used by sessions with the blob cache enabled.
+         */
+        private EncodedChunkCache.Entry encodeSections() throws IOException {
+            ByteBuf byteBuf = ByteBufAllocator.DEFAULT.ioBuffer();
+            try {
+                WrittenSections written = writeSections(byteBuf);
+                int sectionCount = written.sectionCount();
+                int[] offsets = written.offsets();
+
+                byte[][] encodedSections = new byte[sectionCount][];
+                long[] blobIds = new long[sectionCount + 1];
+                for (int i = 0; i <= sectionCount; i++) {
+                    int start = offsets[i];
+                    int length = offsets[i + 1] - start;
+                    if (i < sectionCount) {
+                        encodedSections[i] = new byte[length];
+                        byteBuf.getBytes(start, encodedSections[i]);
+                    }
+                    blobIds[i] = XXHash64.hash(byteBuf, start, length);
+                }
+                byte[] biomes = new byte[offsets[sectionCount + 1] - offsets[sectionCount]];
+                byteBuf.getBytes(offsets[sectionCount], biomes);
+                return new EncodedChunkCache.Entry(encodedSections, biomes, blobIds, written.bedrockOnlyBlockEntities());
+            } finally {
+                byteBuf.release(); // Release buffer to allow buffer pooling to be useful
+            }
+        }
+
+        /**
+         * Converts the chunk sections and biomes and writes them to the buffer.
+         */
+        private WrittenSections writeSections(ByteBuf byteBuf) throws IOException {
+            final SectionScratch scratch = SECTION_SCRATCH.get();
+            scratch.reset();
+            final BlockMappings blockMappings = session.getBlockMappings();
+            final boolean useExtendedCollisions = !blockMappings.getExtendedCollisionBoxes().isEmpty();
+            final ChunkSection[] javaSections = this.javaSections;
+
+            DataPalette[] javaBiomes = new DataPalette[chunkSize];
+            List<NbtMap> bedrockOnlyBlockEntities = new ObjectArrayList<>(0);
+
+            BitSet waterloggedPaletteIds = new BitSet();
+            BitSet bedrockOnlyBlockEntityIds = new BitSet();
+
+            int maxBedrockSectionY = (bedrockDimension.height() >> 4) - 1;
+
+            GeyserChunkSection[] sections = new GeyserChunkSection[chunkSize - (yOffset + (bedrockDimension.minY() >> 4))];
+
             boolean extendedCollisionNextSection = false;
             for (int sectionY = 0; sectionY < chunkSize; sectionY++) {
-                ChunkSection javaSection = session.getDownstream().getCodecHelper().readChunkSection(in, biomeGlobalPalette);
-                javaChunks[sectionY] = javaSection.getChunkData();
+                ChunkSection javaSection = javaSections[sectionY];
                 javaBiomes[sectionY] = javaSection.getBiomeData();
                 boolean extendedCollision = extendedCollisionNextSection;
                 boolean thisExtendedCollisionNextSection = false;
@@ -145,17 +453,17 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
                     if (useExtendedCollisions) {
                         if (extendedCollision) {
                             int blocks = EXTENDED_COLLISIONS_STORAGE.get().bottomLayerCollisions() + 1;
-                            BitArray bedrockData = BitArrayVersion.forBitsCeil(Integer.SIZE - Integer.numberOfLeadingZeros(blocks)).createArray(BlockStorage.SIZE);
-                            BlockStorage layer0 = new BlockStorage(bedrockData, new IntArrayList(blocks));
-    
-                            layer0.idFor(session.getBlockMappings().getBedrockAir().getRuntimeId());
+                            BitArray bedrockData = scratch.bitArray(BitArrayVersion.forBitsCeil(Integer.SIZE - Integer.numberOfLeadingZeros(blocks)));
+                            BlockStorage layer0 = new BlockStorage(bedrockData, scratch.palette());
+
+                            layer0.idFor(blockMappings.getBedrockAir().getRuntimeId());
                             for (int yzx = 0; yzx < BlockStorage.SIZE / 16; yzx++) {
                                 if (EXTENDED_COLLISIONS_STORAGE.get().get(yzx, sectionY) != 0) {
                                     bedrockData.set(indexYZXtoXZY(yzx), layer0.idFor(EXTENDED_COLLISIONS_STORAGE.get().get(yzx, sectionY)));
                                     EXTENDED_COLLISIONS_STORAGE.get().set(yzx, 0, sectionY);
                                 }
                             }
-    
+
                             BlockStorage[] layers = new BlockStorage[]{ layer0 };
                             sections[bedrockSectionY] = new GeyserChunkSection(layers, subChunkIndex);
                         }
@@ -170,15 +478,16 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
 
                 if (javaPalette instanceof GlobalPalette) {
                     // As this is the global palette, simply iterate through the whole chunk section once
-                    GeyserChunkSection section = new GeyserChunkSection(session.getBlockMappings().getBedrockAir().getRuntimeId(), subChunkIndex);
+                    GeyserChunkSection section = new GeyserChunkSection(blockMappings.getBedrockAir().getRuntimeId(), subChunkIndex);
                     for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
                         int javaId = javaData.get(yzx);
-                        int bedrockId = session.getBlockMappings().getBedrockBlockId(javaId);
+                        int bedrockId = blockMappings.getBedrockBlockId(javaId);
+                        int flags = blockMappings.getJavaBlockStateFlags(javaId);
                         int xzy = indexYZXtoXZY(yzx);
                         section.getBlockStorageArray()[0].setFullBlock(xzy, bedrockId);
 
-                        if (BlockRegistries.WATERLOGGED.get().get(javaId)) {
-                            section.getBlockStorageArray()[1].setFullBlock(xzy, session.getBlockMappings().getBedrockWater().getRuntimeId());
+                        if ((flags & BlockMappings.FLAG_WATERLOGGED) != 0) {
+                            section.getBlockStorageArray()[1].setFullBlock(xzy, blockMappings.getBedrockWater().getRuntimeId());
                         }
 
                         // Extended collision blocks
@@ -190,8 +499,8 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
                                 EXTENDED_COLLISIONS_STORAGE.get().set(yzx, 0, sectionY);
                                 continue;
                             }
-                            BlockDefinition aboveBedrockExtendedCollisionDefinition = session.getBlockMappings().getExtendedCollisionBoxes().get(javaId);
-                            if (aboveBedrockExtendedCollisionDefinition != null) {
+                            if ((flags & BlockMappings.FLAG_EXTENDED_COLLISION) != 0) {
+                                BlockDefinition aboveBedrockExtendedCollisionDefinition = blockMappings.getExtendedCollisionBoxes().get(javaId);
                                 EXTENDED_COLLISIONS_STORAGE.get().set((yzx + 0x100) & 0xFFF, aboveBedrockExtendedCollisionDefinition.getRuntimeId(), sectionY);
                                 if ((xzy & 0xF) == 15) {
                                     thisExtendedCollisionNextSection = true;
@@ -200,8 +509,8 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
                         }
 
                         // Check if block is piston or flower to see if we'll need to create additional block entities, as they're only block entities in Bedrock
-                        if (BlockStateValues.getFlowerPotValues().containsKey(javaId) || BlockStateValues.getPistonValues().containsKey(javaId) || BlockStateValues.isCauldron(javaId)) {
-                            bedrockBlockEntities.add(BedrockOnlyBlockEntity.getTag(session,
+                        if ((flags & BlockMappings.FLAG_BEDROCK_ONLY_BLOCK_ENTITY) != 0) {
+                            bedrockOnlyBlockEntities.add(BedrockOnlyBlockEntity.getTag(session,
                                     Vector3i.from((packet.getX() << 4) + (yzx & 0xF), ((sectionY + yOffset) << 4) + ((yzx >> 8) & 0xF), (packet.getZ() << 4) + ((yzx >> 4) & 0xF)),
                                     javaId
                             ));
@@ -215,11 +524,11 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
                 if (javaPalette instanceof SingletonPalette) {
                     // There's only one block here. Very easy!
                     int javaId = javaPalette.idToState(0);
-                    int bedrockId = session.getBlockMappings().getBedrockBlockId(javaId);
+                    int bedrockId = blockMappings.getBedrockBlockId(javaId);
                     BlockStorage blockStorage = new BlockStorage(SingletonBitArray.INSTANCE, IntLists.singleton(bedrockId));
 
-                    if (BlockRegistries.WATERLOGGED.get().get(javaId)) {
-                        BlockStorage waterlogged = new BlockStorage(SingletonBitArray.INSTANCE, IntLists.singleton(session.getBlockMappings().getBedrockWater().getRuntimeId()));
+                    if ((blockMappings.getJavaBlockStateFlags(javaId) & BlockMappings.FLAG_WATERLOGGED) != 0) {
+                        BlockStorage waterlogged = new BlockStorage(SingletonBitArray.INSTANCE, IntLists.singleton(blockMappings.getBedrockWater().getRuntimeId()));
                         sections[bedrockSectionY] = new GeyserChunkSection(new BlockStorage[] {blockStorage, waterlogged}, subChunkIndex);
                     } else {
                         sections[bedrockSectionY] = new GeyserChunkSection(new BlockStorage[] {blockStorage}, subChunkIndex);
@@ -232,7 +541,7 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
                     continue;
                 }
 
-                IntList bedrockPalette = new IntArrayList(javaPalette.size());
+                IntList bedrockPalette = scratch.palette();
                 int airPaletteId = -1;
                 waterloggedPaletteIds.clear();
                 bedrockOnlyBlockEntityIds.clear();
@@ -241,9 +550,10 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
                 int extendedCollisionsInPalette = 0;
                 for (int i = 0; i < javaPalette.size(); i++) {
                     int javaId = javaPalette.idToState(i);
-                    bedrockPalette.add(session.getBlockMappings().getBedrockBlockId(javaId));
+                    bedrockPalette.add(blockMappings.getBedrockBlockId(javaId));
+                    int flags = blockMappings.getJavaBlockStateFlags(javaId);
 
-                    if (BlockRegistries.WATERLOGGED.get().get(javaId)) {
+                    if ((flags & BlockMappings.FLAG_WATERLOGGED) != 0) {
                         waterloggedPaletteIds.set(i);
                     }
 
@@ -252,14 +562,14 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
                     }
 
                     if (useExtendedCollisions) {
-                        if (session.getBlockMappings().getExtendedCollisionBoxes().get(javaId) != null) {
+                        if ((flags & BlockMappings.FLAG_EXTENDED_COLLISION) != 0) {
                             extendedCollision = true;
                             extendedCollisionsInPalette++;
                         }
                     }
 
                     // Check if block is piston, flower or cauldron to see if we'll need to create additional block entities, as they're only block entities in Bedrock
-                    if (BlockStateValues.getFlowerPotValues().containsKey(javaId) || BlockStateValues.getPistonValues().containsKey(javaId) || BlockStateValues.isCauldron(javaId)) {
+                    if ((flags & BlockMappings.FLAG_BEDROCK_ONLY_BLOCK_ENTITY) != 0) {
                         bedrockOnlyBlockEntityIds.set(i);
                     }
                 }
@@ -271,7 +581,7 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
                     for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
                         int paletteId = javaData.get(yzx);
                         if (bedrockOnlyBlockEntityIds.get(paletteId)) {
-                            bedrockBlockEntities.add(BedrockOnlyBlockEntity.getTag(session,
+                            bedrockOnlyBlockEntities.add(BedrockOnlyBlockEntity.getTag(session,
                                     Vector3i.from((packet.getX() << 4) + (yzx & 0xF), ((sectionY + yOffset) << 4) + ((yzx >> 8) & 0xF), (packet.getZ() << 4) + ((yzx >> 4) & 0xF)),
                                     javaPalette.idToState(paletteId)
                             ));
@@ -286,41 +596,34 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
                     sectionCollisionBlocks = bottomLayerCollisions + extendedCollisionsInPalette;
                 }
                 int bedrockDataBits = Integer.SIZE - Integer.numberOfLeadingZeros(javaPalette.size() + sectionCollisionBlocks);
-                BitArray bedrockData = BitArrayVersion.forBitsCeil(bedrockDataBits).createArray(BlockStorage.SIZE);
+                BitArray bedrockData = scratch.bitArray(BitArrayVersion.forBitsCeil(bedrockDataBits));
                 BlockStorage layer0 = new BlockStorage(bedrockData, bedrockPalette);
                 BlockStorage[] layers;
 
                 // Convert data array from YZX to XZY coordinate order
                 if (waterloggedPaletteIds.isEmpty() && !extendedCollision) {
                     // No blocks are waterlogged, simply convert coordinate order
-                    // This could probably be optimized further...
-                    for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
-                        int paletteId = javaData.get(yzx);
-                        int xzy = indexYZXtoXZY(yzx);
-                        bedrockData.set(xzy, paletteId);
-                    }
+                    bedrockData.transposeFrom(javaData, null);
 
                     layers = new BlockStorage[]{ layer0 };
                 } else if (!waterloggedPaletteIds.isEmpty() && !extendedCollision) {
                     // The section contains waterlogged blocks, we need to convert coordinate order AND generate a V1 block storage for
                     // layer 1 with palette ID 1 indicating water
-                    int[] layer1Data = new int[BlockStorage.SIZE >> 5];
-                    for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
-                        int paletteId = javaData.get(yzx);
-                        int xzy = indexYZXtoXZY(yzx);
-                        bedrockData.set(xzy, paletteId);
+                    bedrockData.transposeFrom(javaData, null);
 
-                        if (waterloggedPaletteIds.get(paletteId)) {
-                            layer1Data[xzy >> 5] |= 1 << (xzy & 0x1F);
-                        }
+                    int[] waterloggedRemap = scratch.remap(1 << javaData.getBitsPerEntry());
+                    for (int i = waterloggedPaletteIds.nextSetBit(0); i >= 0; i = waterloggedPaletteIds.nextSetBit(i + 1)) {
+                        waterloggedRemap[i] = 1;
                     }
-                    
+                    BitArray layer1Data = scratch.bitArray(BitArrayVersion.V1);
+                    layer1Data.transposeFrom(javaData, waterloggedRemap);
+
                     // V1 palette
                     IntList layer1Palette = IntList.of(
-                            session.getBlockMappings().getBedrockAir().getRuntimeId(), // Air - see BlockStorage's constructor for more information
-                            session.getBlockMappings().getBedrockWater().getRuntimeId());
+                            blockMappings.getBedrockAir().getRuntimeId(), // Air - see BlockStorage's constructor for more information
+                            blockMappings.getBedrockWater().getRuntimeId());
 
-                    layers = new BlockStorage[]{ layer0, new BlockStorage(BitArrayVersion.V1.createArray(BlockStorage.SIZE, layer1Data), layer1Palette) };
+                    layers = new BlockStorage[]{ layer0, new BlockStorage(layer1Data, layer1Palette) };
                 } else if (waterloggedPaletteIds.isEmpty() && extendedCollision) {
                     for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
                         int paletteId = javaData.get(yzx);
@@ -334,7 +637,7 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
                             EXTENDED_COLLISIONS_STORAGE.get().set(yzx, 0, sectionY);
                             continue;
                         }
-                        BlockDefinition aboveBedrockExtendedCollisionDefinition = session.getBlockMappings()
+                        BlockDefinition aboveBedrockExtendedCollisionDefinition = blockMappings
                                 .getExtendedCollisionBoxes().get(javaPalette.idToState(paletteId));
                         if (aboveBedrockExtendedCollisionDefinition != null) {
                             EXTENDED_COLLISIONS_STORAGE.get().set((yzx + 0x100) & 0xFFF, aboveBedrockExtendedCollisionDefinition.getRuntimeId(), sectionY);
@@ -346,7 +649,8 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
 
                     layers = new BlockStorage[]{ layer0 };
                 } else {
-                    int[] layer1Data = new int[BlockStorage.SIZE >> 5];
+                    BitArray layer1Array = scratch.bitArray(BitArrayVersion.V1);
+                    int[] layer1Data = layer1Array.getWords();
                     for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
                         int paletteId = javaData.get(yzx);
                         int xzy = indexYZXtoXZY(yzx);
@@ -363,7 +667,7 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
                             EXTENDED_COLLISIONS_STORAGE.get().set(yzx, 0, sectionY);
                             continue;
                         }
-                        BlockDefinition aboveBedrockExtendedCollisionDefinition = session.getBlockMappings().getExtendedCollisionBoxes()
+                        BlockDefinition aboveBedrockExtendedCollisionDefinition = blockMappings.getExtendedCollisionBoxes()
                                 .get(javaPalette.idToState(paletteId));
                         if (aboveBedrockExtendedCollisionDefinition != null) {
                             EXTENDED_COLLISIONS_STORAGE.get().set((yzx + 0x100) & 0xFFF, aboveBedrockExtendedCollisionDefinition.getRuntimeId(), sectionY);
@@ -375,78 +679,31 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
 
                     // V1 palette
                     IntList layer1Palette = IntList.of(
-                            session.getBlockMappings().getBedrockAir().getRuntimeId(), // Air - see BlockStorage's constructor for more information
-                            session.getBlockMappings().getBedrockWater().getRuntimeId());
+                            blockMappings.getBedrockAir().getRuntimeId(), // Air - see BlockStorage's constructor for more information
+                            blockMappings.getBedrockWater().getRuntimeId());
 
-                    layers = new BlockStorage[]{ layer0, new BlockStorage(BitArrayVersion.V1.createArray(BlockStorage.SIZE, layer1Data), layer1Palette) };
+                    layers = new BlockStorage[]{ layer0, new BlockStorage(layer1Array, layer1Palette) };
                 }
 
                 sections[bedrockSectionY] = new GeyserChunkSection(layers, subChunkIndex);
                 extendedCollisionNextSection = thisExtendedCollisionNextSection;
             }
 
-            if (!session.getErosionHandler().isActive()) {
-                session.getChunkCache().addToCache(packet.getX(), packet.getZ(), javaChunks);
-            }
-
-            final int chunkBlockX = packet.getX() << 4;
-            final int chunkBlockZ = packet.getZ() << 4;
-            for (BlockEntityInfo blockEntity : blockEntities) {
-                BlockEntityType type = blockEntity.getType();
-                if (type == null) {
-                    // As an example: ViaVersion will send -1 if it cannot find the block entity type
-                    // Vanilla Minecraft gracefully handles this
-                    continue;
-                }
-                CompoundTag tag = blockEntity.getNbt();
-                int x = blockEntity.getX(); // Relative to chunk
-                int y = blockEntity.getY();
-                int z = blockEntity.getZ(); // Relative to chunk
-
-                // Get the Java block state ID from block entity position
-                DataPalette section = javaChunks[(y >> 4) - yOffset];
-                int blockState = section.get(x, y & 0xF, z);
-
-                if (type == BlockEntityType.LECTERN && BlockStateValues.getLecternBookStates().get(blockState)) {
-                    // If getLecternBookStates is false, let's just treat it like a normal block entity
-                    // Fill in tag with a default value
-                    NbtMapBuilder lecternTag = LecternUtils.getBaseLecternTag(x + chunkBlockX, y, z + chunkBlockZ, 1);
-                    lecternTag.putCompound("book", NbtMap.builder()
-                                    .putByte("Count", (byte) 1)
-                                    .putShort("Damage", (short) 0)
-                                    .putString("Name", "minecraft:written_book").build());
-                    lecternTag.putInt("page", -1);
-                    bedrockBlockEntities.add(lecternTag.build());
-                    lecterns.add(blockEntity);
-                    continue;
-                }
-
-                BlockEntityTranslator blockEntityTranslator = BlockEntityUtils.getBlockEntityTranslator(type);
-                bedrockBlockEntities.add(blockEntityTranslator.getBlockEntityTag(session, type, x + chunkBlockX, y, z + chunkBlockZ, tag, blockState));
-
-                // Check for custom skulls
-                if (session.getPreferencesCache().showCustomSkulls() && type == BlockEntityType.SKULL && tag != null && tag.contains("SkullOwner")) {
-                    BlockDefinition blockDefinition = SkullBlockEntityTranslator.translateSkull(session, tag, Vector3i.from(x + chunkBlockX, y, z + chunkBlockZ), blockState);
-                    if (blockDefinition != null) {
-                        int bedrockSectionY = (y >> 4) - (bedrockDimension.minY() >> 4);
-                        int subChunkIndex = (y >> 4) + (bedrockDimension.minY() >> 4);
-                        if (0 <= bedrockSectionY && bedrockSectionY < maxBedrockSectionY) {
-                            // Custom skull is in a section accepted by Bedrock
-                            GeyserChunkSection bedrockSection = sections[bedrockSectionY];
-                            IntList palette = bedrockSection.getBlockStorageArray()[0].getPalette();
-                            if (palette instanceof IntImmutableList || palette instanceof IntLists.Singleton) {
-                                // TODO there has to be a better way to expand the palette .-.
-                                bedrockSection = bedrockSection.copy(subChunkIndex);
-                                sections[bedrockSectionY] = bedrockSection;
-                            }
-                            bedrockSection.setFullBlock(x, y & 0xF, z, 0, blockDefinition.getRuntimeId());
-                        }
-                    }
+            for (CustomSkull skull : customSkulls) {
+                int bedrockSectionY = (skull.y() >> 4) - (bedrockDimension.minY() >> 4);
+                int subChunkIndex = (skull.y() >> 4) + (bedrockDimension.minY() >> 4);
+                GeyserChunkSection bedrockSection = sections[bedrockSectionY];
+                IntList palette = bedrockSection.getBlockStorageArray()[0].getPalette();
+                if (palette instanceof IntImmutableList || palette instanceof IntLists.Singleton) {
+                    // TODO there has to be a better way to expand the palette .-.
+                    bedrockSection = bedrockSection.copy(subChunkIndex);
+                    sections[bedrockSectionY] = bedrockSection;
                 }
+                bedrockSection.setFullBlock(skull.x(), skull.y() & 0xF, skull.z(), 0, skull.bedrockId());
             }
 
             // Find highest section
-            sectionCount = sections.length - 1;
+            int sectionCount = sections.length - 1;
             while (sectionCount >= 0 && sections[sectionCount] == null) {
                 sectionCount--;
             }
@@ -466,12 +723,11 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
                 }
             }
             size += ChunkUtils.EMPTY_BIOME_DATA.length * biomeCount;
-            size += 1; // Border blocks
-            size += bedrockBlockEntities.size() * 64; // Conservative estimate of 64 bytes per tile entity
 
-            // Allocate output buffer
-            byteBuf = ByteBufAllocator.DEFAULT.ioBuffer(size);
+            int[] offsets = new int[sectionCount + 2];
+            byteBuf.ensureWritable(size);
             for (int i = 0; i < sectionCount; i++) {
+                offsets[i] = byteBuf.writerIndex();
                 GeyserChunkSection section = sections[i];
                 if (section != null) {
                     section.writeToNetwork(byteBuf);
@@ -481,6 +737,7 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
                 }
             }
 
+            offsets[sectionCount] = byteBuf.writerIndex();
             int dimensionOffset = bedrockDimension.minY() >> 4;
             for (int i = 0; i < biomeCount; i++) {
                 int biomeYOffset = dimensionOffset + i;
@@ -498,45 +755,77 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
 
                 BiomeTranslator.toNewBedrockBiome(session, javaBiomes[i + (dimensionOffset - yOffset)]).writeToNetwork(byteBuf);
             }
+            offsets[sectionCount + 1] = byteBuf.writerIndex();
+            return new WrittenSections(sectionCount, offsets, bedrockOnlyBlockEntities);
+        }
+    }
 
-            byteBuf.writeByte(0); // Border blocks - Edu edition only
-
-            // Encode tile entities into buffer
-            NBTOutputStream nbtStream = NbtUtils.createNetworkWriter(new ByteBufOutputStream(byteBuf));
-            for (NbtMap blockEntity : bedrockBlockEntities) {
-                nbtStream.writeTag(blockEntity);
-            }
-            payload = new byte[byteBuf.readableBytes()];
-            byteBuf.readBytes(payload);
-        } catch (IOException e) {
-            session.getGeyser().getLogger().error("IO error while encoding chunk", e);
-            return;
-        } finally {
-            if (byteBuf != null) {
-                byteBuf.release(); // Release buffer to allow buffer pooling to be useful
+    /**
+     * Bit arrays and palettes that are reused between sections, as they are only needed until the chunk has been written.
+     */
+    static final class SectionScratch {
+        private final List<List<BitArray>> bitArrays = new ObjectArrayList<>();
+        private final int[] bitArraysUsed = new int[BitArrayVersion.values().length];
+        private final List<IntArrayList> palettes = new ObjectArrayList<>();
+        private int palettesUsed;
+        private int[] remap = new int[256];
+
+        SectionScratch() {
+            for (int i = 0; i < bitArraysUsed.length; i++) {
+                bitArrays.add(new ObjectArrayList<>());
             }
         }
 
-        LevelChunkPacket levelChunkPacket = new LevelChunkPacket();
-        levelChunkPacket.setSubChunksLength(sectionCount);
-        levelChunkPacket.setCachingEnabled(false);
-        levelChunkPacket.setChunkX(packet.getX());
-        levelChunkPacket.setChunkZ(packet.getZ());
-        levelChunkPacket.setData(Unpooled.wrappedBuffer(payload));
-        levelChunkPacket.setDimension(DimensionUtils.javaToBedrock(session.getChunkCache().getBedrockDimension()));
-        session.sendUpstreamPacket(levelChunkPacket);
+        /**
+         * Makes everything available again. Must only be called once nothing from the previous chunk is in use.
+         */
+        void reset() {
+            Arrays.fill(bitArraysUsed, 0);
+            palettesUsed = 0;
+        }
 
-        if (!lecterns.isEmpty()) {
-            session.getGeyser().getWorldManager().sendLecternData(session, packet.getX(), packet.getZ(), lecterns);
+        /**
+         * @return an empty bit array of this version with room for a full section
+         */
+        BitArray bitArray(BitArrayVersion version) {
+            int ordinal = version.ordinal();
+            List<BitArray> pool = bitArrays.get(ordinal);
+            int index = bitArraysUsed[ordinal]++;
+            if (index < pool.size()) {
+                BitArray bitArray = pool.get(index);
+                Arrays.fill(bitArray.getWords(), 0);
+                return bitArray;
+            }
+            BitArray bitArray = version.createArray(BlockStorage.SIZE);
+            pool.add(bitArray);
+            return bitArray;
         }
 
-        for (Map.Entry<Vector3i, ItemFrameEntity> entry : session.getItemFrameCache().entrySet()) {
-            Vector3i position = entry.getKey();
-            if ((position.getX() >> 4) == packet.getX() && (position.getZ() >> 4) == packet.getZ()) {
-                // Update this item frame so it doesn't get lost in the abyss
-                //TODO optimize
-                entry.getValue().updateBlock(true);
+        /**
+         * @return an empty palette
+         */
+        IntList palette() {
+            if (palettesUsed < palettes.size()) {
+                IntArrayList palette = palettes.get(palettesUsed++);
+                palette.clear();
+                return palette;
+            }
+            IntArrayList palette = new IntArrayList();
+            palettes.add(palette);
+            palettesUsed++;
+            return palette;
+        }
+
+        /**
+         * @return a zeroed array with at least this many entries. Only one can be in use at a time
+         */
+        int[] remap(int size) {
+            if (remap.length < size) {
+                remap = new int[size];
+            } else {
+                Arrays.fill(remap, 0, size, 0);
             }
+            return remap;
         }
     }
 
@@ -141,8 +141,15 @@ public class FileUtils {
     public static byte[] calculateSHA256(Path path) {
         byte[] sha256;
 
-        try {
-            sha256 = MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(path));
+        try (InputStream stream = Files.newInputStream(path)) {
+            // Streamed, as packs can be hundreds of megabytes and several may be hashed at once
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[65536];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            sha256 = digest.digest();
         } catch (Exception e) {
             throw new RuntimeException("Could not calculate pack hash", e);
         }
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2019-2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.util;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.PixelInterleavedSampleModel;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.util.Arrays;
+
+/**
+ * Converts between images and the RGBA byte arrays Bedrock uses for skins, working on the pixel arrays of the images
+ * directly instead of going through their color model one pixel at a time.
+ */
+public final class ImageUtils {
+    /**
+     * Where red, green, blue and alpha are within each pixel of a {@link BufferedImage#TYPE_4BYTE_ABGR} image
+     */
+    private static final int[] ABGR_BAND_OFFSETS = {3, 2, 1, 0};
+
+    private ImageUtils() {
+    }
+
+    /**
+     * Convert an image to RGBA bytes, four per pixel, row by row.
+     *
+     * @param image the image to convert
+     * @return the RGBA bytes of the image
+     */
+    public static byte[] toRgba(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        byte[] rgba = new byte[width * height * 4];
+
+        byte[] abgr = abgrBytes(image);
+        if (abgr != null) {
+            for (int i = 0; i < rgba.length; i += 4) {
+                rgba[i] = abgr[i + 3];
+                rgba[i + 1] = abgr[i + 2];
+                rgba[i + 2] = abgr[i + 1];
+                rgba[i + 3] = abgr[i];
+            }
+            return rgba;
+        }
+
+        int[] argb = argbPixels(image);
+        for (int i = 0, j = 0; i < argb.length; i++, j += 4) {
+            int pixel = argb[i];
+            rgba[j] = (byte) (pixel >> 16);
+            rgba[j + 1] = (byte) (pixel >> 8);
+            rgba[j + 2] = (byte) pixel;
+            rgba[j + 3] = (byte) (pixel >>> 24);
+        }
+        return rgba;
+    }
+
+    /**
+     * Convert RGBA bytes, four per pixel, row by row, to an image.
+     *
+     * @param rgba the RGBA bytes to convert
+     * @param width the width of the image
+     * @param height the height of the image
+     * @return a {@link BufferedImage#TYPE_INT_ARGB} image
+     */
+    public static BufferedImage fromRgba(byte[] rgba, int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        int[] argb = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        for (int i = 0, j = 0; i < argb.length; i++, j += 4) {
+            argb[i] = (rgba[j + 3] & 0xFF) << 24 | (rgba[j] & 0xFF) << 16 | (rgba[j + 1] & 0xFF) << 8 | rgba[j + 2] & 0xFF;
+        }
+        return image;
+    }
+
+    /**
+     * Scale an image with bilinear filtering. Colors are weighted by their alpha, so transparent pixels don't darken
+     * the edges of what is next to them.
+     *
+     * @param image the image to scale
+     * @param newWidth the width of the scaled image
+     * @param newHeight the height of the scaled image
+     * @return a scaled {@link BufferedImage#TYPE_INT_ARGB} image
+     */
+    public static BufferedImage scale(BufferedImage image, int newWidth, int newHeight) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] source = argbPixels(image);
+
+        BufferedImage scaled = new BufferedImage(newWidth, newHeight, BufferedImage.TYPE_INT_ARGB);
+        int[] target = ((DataBufferInt) scaled.getRaster().getDataBuffer()).getData();
+
+        float xRatio = (float) width / newWidth;
+        float yRatio = (float) height / newHeight;
+        for (int y = 0; y < newHeight; y++) {
+            // Sample at the center of each pixel
+            float sourceY = Math.max((y + 0.5f) * yRatio - 0.5f, 0);
+            int y0 = Math.min((int) sourceY, height - 1);
+            int y1 = Math.min(y0 + 1, height - 1);
+            float fractionY = sourceY - y0;
+
+            for (int x = 0; x < newWidth; x++) {
+                float sourceX = Math.max((x + 0.5f) * xRatio - 0.5f, 0);
+                int x0 = Math.min((int) sourceX, width - 1);
+                int x1 = Math.min(x0 + 1, width - 1);
+                float fractionX = sourceX - x0;
+
+                target[y * newWidth + x] = interpolate(
+                        source[y0 * width + x0], source[y0 * width + x1],
+                        source[y1 * width + x0], source[y1 * width + x1],
+                        fractionX, fractionY);
+            }
+        }
+        return scaled;
+    }
+
+    private static int interpolate(int topLeft, int topRight, int bottomLeft, int bottomRight, float fractionX, float fractionY) {
+        float weightTopLeft = (1 - fractionX) * (1 - fractionY) * (topLeft >>> 24);
+        float weightTopRight = fractionX * (1 - fractionY) * (topRight >>> 24);
+        float weightBottomLeft = (1 - fractionX) * fractionY * (bottomLeft >>> 24);
+        float weightBottomRight = fractionX * fractionY * (bottomRight >>> 24);
+
+        float alpha = weightTopLeft + weightTopRight + weightBottomLeft + weightBottomRight;
+        if (alpha <= 0) {
+            return 0;
+        }
+
+        int red = Math.round((weightTopLeft * (topLeft >> 16 & 0xFF) + weightTopRight * (topRight >> 16 & 0xFF)
+                + weightBottomLeft * (bottomLeft >> 16 & 0xFF) + weightBottomRight * (bottomRight >> 16 & 0xFF)) / alpha);
+        int green = Math.round((weightTopLeft * (topLeft >> 8 & 0xFF) + weightTopRight * (topRight >> 8 & 0xFF)
+                + weightBottomLeft * (bottomLeft >> 8 & 0xFF) + weightBottomRight * (bottomRight >> 8 & 0xFF)) / alpha);
+        int blue = Math.round((weightTopLeft * (topLeft & 0xFF) + weightTopRight * (topRight & 0xFF)
+                + weightBottomLeft * (bottomLeft & 0xFF) + weightBottomRight * (bottomRight & 0xFF)) / alpha);
+        return Math.min(Math.round(alpha), 255) << 24 | Math.min(red, 255) << 16 | Math.min(green, 255) << 8 | Math.min(blue, 255);
+    }
+
+    /**
+     * @return the ARGB pixels of the image, row by row. The array may be the image's own, so it must not be modified.
+     */
+    private static int[] argbPixels(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        if (image.getType() == BufferedImage.TYPE_INT_ARGB) {
+            Raster raster = image.getRaster();
+            DataBuffer buffer = raster.getDataBuffer();
+            if (buffer instanceof DataBufferInt intBuffer && buffer.getNumBanks() == 1 && buffer.getOffset() == 0
+                    && raster.getSampleModelTranslateX() == 0 && raster.getSampleModelTranslateY() == 0
+                    && raster.getSampleModel() instanceof SinglePixelPackedSampleModel sampleModel
+                    && sampleModel.getScanlineStride() == width && intBuffer.getData().length == width * height) {
+                return intBuffer.getData();
+            }
+        }
+        // Still converts all pixels in one call, for the less common image types
+        return image.getRGB(0, 0, width, height, null, 0, width);
+    }
+
+    /**
+     * @return the ABGR bytes of the image, row by row, if it is stored that way. The array is the image's own, so it
+     * must not be modified.
+     */
+    private static byte[] abgrBytes(BufferedImage image) {
+        if (image.getType() != BufferedImage.TYPE_4BYTE_ABGR) {
+            return null;
+        }
+        Raster raster = image.getRaster();
+        DataBuffer buffer = raster.getDataBuffer();
+        if (buffer instanceof DataBufferByte byteBuffer && buffer.getNumBanks() == 1 && buffer.getOffset() == 0
+                && raster.getSampleModelTranslateX() == 0 && raster.getSampleModelTranslateY() == 0
+                && raster.getSampleModel() instanceof PixelInterleavedSampleModel sampleModel
+                && sampleModel.getScanlineStride() == image.getWidth() * 4 && sampleModel.getPixelStride() == 4
+                && Arrays.equals(sampleModel.getBandOffsets(), ABGR_BAND_OFFSETS)
+                && byteBuffer.getData().length == image.getWidth() * image.getHeight() * 4) {
+            return byteBuffer.getData();
+        }
+        return null;
+    }
+}
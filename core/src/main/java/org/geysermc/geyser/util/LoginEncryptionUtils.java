@@ -29,6 +29,7 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.steveice10.mc.auth.service.MsaAuthenticationService;
+import io.netty.channel.EventLoop;
 import org.cloudburstmc.protocol.bedrock.packet.LoginPacket;
 import org.cloudburstmc.protocol.bedrock.packet.ServerToClientHandshakePacket;
 import org.cloudburstmc.protocol.bedrock.util.ChainValidationResult;
@@ -40,6 +41,7 @@ import org.geysermc.cumulus.response.SimpleFormResponse;
 import org.geysermc.cumulus.response.result.FormResponseResult;
 import org.geysermc.cumulus.response.result.ValidFormResponseResult;
 import org.geysermc.geyser.GeyserImpl;
+import org.geysermc.geyser.network.LoginVerificationPool;
 import org.geysermc.geyser.session.GeyserSession;
 import org.geysermc.geyser.session.auth.AuthData;
 import org.geysermc.geyser.session.auth.BedrockClientData;
@@ -57,27 +59,45 @@ public class LoginEncryptionUtils {
 
     private static boolean HAS_SENT_ENCRYPTION_MESSAGE = false;
 
-    public static void encryptPlayerConnection(GeyserSession session, LoginPacket loginPacket) {
-        encryptConnectionWithCert(session, loginPacket.getExtra(), loginPacket.getChain());
+    /**
+     * Verifies the login and encrypts the connection. If a login verification pool is enabled, the verification runs
+     * there, and the rest of the login continues on the session's network thread afterwards.
+     *
+     * @param onEncrypted run on the session's network thread once the connection is encrypted, unless the login failed
+     */
+    public static void encryptPlayerConnection(GeyserSession session, LoginPacket loginPacket, Runnable onEncrypted) {
+        String clientData = loginPacket.getExtra();
+        List<String> certChainData = loginPacket.getChain();
+
+        LoginVerificationPool pool = session.getGeyser().getLoginVerificationPool();
+        if (pool == null) {
+            completeLogin(session, certChainData, verifyLogin(session.getGeyser(), clientData, certChainData), onEncrypted);
+            return;
+        }
+
+        EventLoop eventLoop = session.getUpstream().getSession().getPeer().getChannel().eventLoop();
+        boolean queued = pool.submit(session.getUpstream().getAddress().getAddress(), () -> {
+            VerifiedLogin login = verifyLogin(session.getGeyser(), clientData, certChainData);
+            eventLoop.execute(() -> completeLogin(session, certChainData, login, onEncrypted));
+        });
+        if (!queued) {
+            session.disconnect("disconnectionScreen.serverFull");
+        }
     }
 
-    private static void encryptConnectionWithCert(GeyserSession session, String clientData, List<String> certChainData) {
+    /**
+     * Does the expensive part of logging in, which doesn't touch the session and can run on any thread.
+     */
+    private static VerifiedLogin verifyLogin(GeyserImpl geyser, String clientData, List<String> certChainData) {
         try {
-            GeyserImpl geyser = session.getGeyser();
-
             ChainValidationResult result = EncryptionUtils.validateChain(certChainData);
 
             geyser.getLogger().debug(String.format("Is player data signed? %s", result.signed()));
 
-            if (!result.signed() && !session.getGeyser().getConfig().isEnableProxyConnections()) {
-                session.disconnect(GeyserLocale.getLocaleStringLog("geyser.network.remote.invalid_xbox_account"));
-                return;
+            if (!result.signed() && !geyser.getConfig().isEnableProxyConnections()) {
+                return new VerifiedLogin(result, null, null, null, null);
             }
 
-            IdentityData extraData = result.identityClaims().extraData;
-            session.setAuthenticationData(new AuthData(extraData.displayName, extraData.identity, extraData.xuid));
-            session.setCertChainData(certChainData);
-
             PublicKey identityPublicKey = result.identityClaims().parsedIdentityPublicKey();
 
             byte[] clientDataPayload = EncryptionUtils.verifyClientData(clientData, identityPublicKey);
@@ -88,34 +108,70 @@ public class LoginEncryptionUtils {
             JsonNode clientDataJson = JSON_MAPPER.readTree(clientDataPayload);
             BedrockClientData data = JSON_MAPPER.convertValue(clientDataJson, BedrockClientData.class);
             data.setOriginalString(clientData);
-            session.setClientData(data);
 
+            ServerToClientHandshakePacket handshake = null;
+            SecretKey encryptionKey = null;
             try {
-                startEncryptionHandshake(session, identityPublicKey);
+                KeyPair serverKeyPair = EncryptionUtils.createKeyPair();
+                byte[] token = EncryptionUtils.generateRandomToken();
+
+                handshake = new ServerToClientHandshakePacket();
+                handshake.setJwt(EncryptionUtils.createHandshakeJwt(serverKeyPair, token));
+                encryptionKey = EncryptionUtils.getSecretKey(serverKeyPair.getPrivate(), identityPublicKey, token);
             } catch (Throwable e) {
                 // An error can be thrown on older Java 8 versions about an invalid key
                 if (geyser.getConfig().isDebugMode()) {
                     e.printStackTrace();
                 }
-
-                sendEncryptionFailedMessage(geyser);
+                handshake = null;
             }
+            return new VerifiedLogin(result, data, handshake, encryptionKey, null);
         } catch (Exception ex) {
-            session.disconnect("disconnectionScreen.internalError.cantConnect");
-            throw new RuntimeException("Unable to complete login", ex);
+            return new VerifiedLogin(null, null, null, null, ex);
         }
     }
 
-    private static void startEncryptionHandshake(GeyserSession session, PublicKey key) throws Exception {
-        KeyPair serverKeyPair = EncryptionUtils.createKeyPair();
-        byte[] token = EncryptionUtils.generateRandomToken();
+    private static void completeLogin(GeyserSession session, List<String> certChainData, VerifiedLogin login, Runnable onEncrypted) {
+        if (session.isClosed()) {
+            return;
+        }
+
+        if (login.error() != null) {
+            session.disconnect("disconnectionScreen.internalError.cantConnect");
+            session.getGeyser().getLogger().error("Unable to complete login", login.error());
+            return;
+        }
+
+        ChainValidationResult result = login.result();
+        if (login.clientData() == null) {
+            session.disconnect(GeyserLocale.getLocaleStringLog("geyser.network.remote.invalid_xbox_account"));
+            return;
+        }
+
+        IdentityData extraData = result.identityClaims().extraData;
+        session.setAuthenticationData(new AuthData(extraData.displayName, extraData.identity, extraData.xuid));
+        session.setCertChainData(certChainData);
+        session.setClientData(login.clientData());
 
-        ServerToClientHandshakePacket packet = new ServerToClientHandshakePacket();
-        packet.setJwt(EncryptionUtils.createHandshakeJwt(serverKeyPair, token));
-        session.sendUpstreamPacketImmediately(packet);
+        if (login.handshake() != null) {
+            session.sendUpstreamPacketImmediately(login.handshake());
+            session.getUpstream().getSession().enableEncryption(login.encryptionKey());
+        } else {
+            sendEncryptionFailedMessage(session.getGeyser());
+        }
 
-        SecretKey encryptionKey = EncryptionUtils.getSecretKey(serverKeyPair.getPrivate(), key, token);
-        session.getUpstream().getSession().enableEncryption(encryptionKey);
+        onEncrypted.run();
+    }
+
+    /**
+     * The outcome of verifying a login.
+     *
+     * @param clientData null if the login wasn't signed, and unsigned logins aren't allowed
+     * @param handshake null if the encryption handshake couldn't be started
+     * @param error set if the login couldn't be verified, in which case all other values are null
+     */
+    private record VerifiedLogin(ChainValidationResult result, BedrockClientData clientData, ServerToClientHandshakePacket handshake,
+                                 SecretKey encryptionKey, Exception error) {
     }
 
     private static void sendEncryptionFailedMessage(GeyserImpl geyser) {
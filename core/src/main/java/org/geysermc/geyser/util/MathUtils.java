@@ -25,9 +25,21 @@
 
 package org.geysermc.geyser.util;
 
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
 public class MathUtils {
     public static final double SQRT_OF_TWO = Math.sqrt(2);
 
+    /**
+     * Every power of ten that can be represented exactly as a double.
+     */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
     /**
      * Wrap the given float degrees to be between -180.0 and 180.0.
      * 
@@ -196,4 +208,69 @@ public class MathUtils {
     public static int getGlobalPaletteForSize(int size) {
         return 32 - Integer.numberOfLeadingZeros(size - 1);
     }
+
+    /**
+     * Converts a float to a double the same way {@code Double.parseDouble(Float.toString(value))} does, without creating
+     * a string. Casting would instead keep the float's binary error, turning {@code 0.1f} into {@code 0.10000000149011612}.
+     *
+     * @param value the float to convert
+     * @return the double closest to the shortest decimal representation of the float
+     */
+    public static double floatToDecimalDouble(float value) {
+        if (Float.isNaN(value)) {
+            return Double.NaN;
+        }
+        float abs = Math.abs(value);
+        if (abs == 0 || abs == Float.POSITIVE_INFINITY) {
+            return value;
+        }
+        if (abs < 1e-5f || abs >= 0x1p25f) {
+            // Outside of the range where all digits and powers of ten stay exact, and where Float.toString prints the
+            // shortest representation
+            return Double.parseDouble(Float.toString(value));
+        }
+
+        double exact = abs;
+        int exponent = (int) Math.floor(Math.log10(exact));
+        // Try one digit less and more than expected, in case the logarithm was rounded across a power of ten
+        for (int digits = 0; digits <= 10; digits++) {
+            int scale = digits - 1 - exponent;
+            double candidate;
+            if (scale >= 0) {
+                candidate = Math.rint(exact * POWERS_OF_TEN[scale]) / POWERS_OF_TEN[scale];
+            } else {
+                candidate = Math.rint(exact / POWERS_OF_TEN[-scale]) * POWERS_OF_TEN[-scale];
+            }
+            if ((float) candidate == abs) {
+                return value < 0 ? -candidate : candidate;
+            }
+        }
+        return Double.parseDouble(Float.toString(value));
+    }
+
+    /**
+     * Rounds a value to a number of decimal places, rounding half to even, the same way formatting it with
+     * {@code new DecimalFormat("#.#####")} (for five places) and parsing the result does, without creating a string.
+     *
+     * @param value the value to round
+     * @param places the number of decimal places to keep, up to 15
+     * @return the double closest to the rounded decimal value
+     */
+    public static double roundToDecimalPlaces(double value, int places) {
+        double scale = POWERS_OF_TEN[places];
+        double scaled = value * scale;
+        double rounded = Math.rint(scaled);
+        // DecimalFormat rounds the shortest decimal representation of the value rather than the value itself, which
+        // can only round differently close to a tie; leave those and values too large to scale exactly to it
+        if (!(Math.abs(scaled) < 0x1p51) || Math.abs(Math.abs(scaled - rounded) - 0.5) <= Math.ulp(scaled) * 4) {
+            if (!Double.isFinite(value)) {
+                // Infinity can't be parsed back from how it is formatted
+                return Double.isNaN(value) ? Double.NaN : value;
+            }
+            DecimalFormat format = new DecimalFormat("#." + "#".repeat(places), DecimalFormatSymbols.getInstance(Locale.ENGLISH));
+            return Double.parseDouble(format.format(value));
+        }
+        // Formatting keeps the sign of negative values that round to zero
+        return Math.copySign(rounded / scale, value);
+    }
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2019-2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level.chunk.bitarray;
+
+import com.github.steveice10.mc.protocol.data.game.chunk.BitStorage;
+import org.geysermc.geyser.util.ChunkUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class BitArrayTransposeTest {
+    private static final int SIZE = 4096;
+
+    @Test
+    public void testTransposeMatchesSet() {
+        Random random = new Random(0);
+        for (BitArrayVersion version : BitArrayVersion.values()) {
+            if (version == BitArrayVersion.V0) {
+                continue;
+            }
+            // Java storage is always at least 4 bits wide for block data
+            BitStorage javaData = new BitStorage(Math.max(4, version.bits), SIZE);
+            for (int i = 0; i < SIZE; i++) {
+                javaData.set(i, random.nextInt(version.maxEntryValue + 1));
+            }
+
+            BitArray expected = version.createArray(SIZE);
+            for (int yzx = 0; yzx < SIZE; yzx++) {
+                expected.set(ChunkUtils.indexYZXtoXZY(yzx), javaData.get(yzx));
+            }
+
+            BitArray actual = version.createArray(SIZE);
+            actual.transposeFrom(javaData, null);
+            Assertions.assertArrayEquals(expected.getWords(), actual.getWords(), "Transposed words differ for " + version);
+        }
+    }
+
+    @Test
+    public void testTransposeWithRemap() {
+        Random random = new Random(1);
+        BitStorage javaData = new BitStorage(4, SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            javaData.set(i, random.nextInt(16));
+        }
+        int[] remap = new int[16];
+        remap[3] = 1;
+        remap[11] = 1;
+
+        BitArray expected = BitArrayVersion.V1.createArray(SIZE);
+        for (int yzx = 0; yzx < SIZE; yzx++) {
+            expected.set(ChunkUtils.indexYZXtoXZY(yzx), remap[javaData.get(yzx)]);
+        }
+
+        BitArray actual = BitArrayVersion.V1.createArray(SIZE);
+        actual.transposeFrom(javaData, remap);
+        Assertions.assertArrayEquals(expected.getWords(), actual.getWords());
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2019-2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+public class ImageUtilsTest {
+
+    @Test
+    public void testToRgba() {
+        int[] types = {BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_4BYTE_ABGR, BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_3BYTE_BGR};
+        for (int type : types) {
+            BufferedImage image = randomImage(type, 64, 32);
+            Assertions.assertArrayEquals(referenceRgba(image), ImageUtils.toRgba(image), () -> "Image type " + type + " converted differently");
+
+            // Images that share a larger raster can't use it directly
+            BufferedImage subimage = image.getSubimage(8, 4, 16, 16);
+            Assertions.assertArrayEquals(referenceRgba(subimage), ImageUtils.toRgba(subimage), () -> "Subimage of type " + type + " converted differently");
+        }
+    }
+
+    @Test
+    public void testFromRgba() {
+        BufferedImage image = randomImage(BufferedImage.TYPE_INT_ARGB, 64, 64);
+        byte[] rgba = referenceRgba(image);
+        BufferedImage converted = ImageUtils.fromRgba(rgba, 64, 64);
+        for (int y = 0; y < 64; y++) {
+            for (int x = 0; x < 64; x++) {
+                Assertions.assertEquals(image.getRGB(x, y), converted.getRGB(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void testScale() {
+        // Uniform 2x2 blocks scale down to their color
+        BufferedImage image = new BufferedImage(4, 4, BufferedImage.TYPE_INT_ARGB);
+        int[] colors = {0xFFFF0000, 0xFF00FF00, 0xFF0000FF, 0x80FFFFFF};
+        for (int y = 0; y < 4; y++) {
+            for (int x = 0; x < 4; x++) {
+                image.setRGB(x, y, colors[(y / 2) * 2 + x / 2]);
+            }
+        }
+        BufferedImage scaled = ImageUtils.scale(image, 2, 2);
+        for (int i = 0; i < colors.length; i++) {
+            Assertions.assertEquals(colors[i], scaled.getRGB(i % 2, i / 2));
+        }
+
+        // Transparent pixels don't bleed their color into opaque ones
+        BufferedImage edge = new BufferedImage(2, 1, BufferedImage.TYPE_INT_ARGB);
+        edge.setRGB(0, 0, 0xFFFF0000);
+        edge.setRGB(1, 0, 0x00000000);
+        int blended = ImageUtils.scale(edge, 1, 1).getRGB(0, 0);
+        Assertions.assertEquals(0xFF0000, blended & 0xFFFFFF);
+        Assertions.assertEquals(0x80, blended >>> 24);
+    }
+
+    private static BufferedImage randomImage(int type, int width, int height) {
+        Random random = new Random(type);
+        BufferedImage image = new BufferedImage(width, height, type);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+        return image;
+    }
+
+    private static byte[] referenceRgba(BufferedImage image) {
+        byte[] rgba = new byte[image.getWidth() * image.getHeight() * 4];
+        int index = 0;
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                int pixel = image.getRGB(x, y);
+                rgba[index++] = (byte) (pixel >> 16);
+                rgba[index++] = (byte) (pixel >> 8);
+                rgba[index++] = (byte) pixel;
+                rgba[index++] = (byte) (pixel >>> 24);
+            }
+        }
+        return rgba;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2019-2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.Random;
+
+public class MathUtilsTest {
+
+    @Test
+    public void testFloatToDecimalDouble() {
+        Random random = new Random(0);
+        for (int i = 0; i < 1_000_000; i++) {
+            // Random bit patterns cover every exponent, while the second value covers typical coordinates
+            assertFloatToDecimalDouble(Float.intBitsToFloat(random.nextInt()));
+            assertFloatToDecimalDouble((random.nextFloat() - 0.5f) * 60_000_000f);
+        }
+
+        float[] edgeCases = {0f, -0f, 0.1f, -0.1f, 1e-5f, 9.999999e-6f, 0x1p25f, Math.nextDown(0x1p25f), 2.9999984E7f,
+                Float.MIN_VALUE, Float.MAX_VALUE, Float.NaN, Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY};
+        for (float value : edgeCases) {
+            assertFloatToDecimalDouble(value);
+        }
+    }
+
+    @Test
+    public void testRoundToDecimalPlaces() {
+        DecimalFormat format = new DecimalFormat("#.#####", new DecimalFormatSymbols(Locale.ENGLISH));
+        Random random = new Random(0);
+        for (int i = 0; i < 1_000_000; i++) {
+            assertRoundToDecimalPlaces(format, (random.nextDouble() - 0.5) * Math.pow(2, random.nextInt(40) - 20));
+            assertRoundToDecimalPlaces(format, MathUtils.floatToDecimalDouble((random.nextFloat() - 0.5f) * 640f) - 1.62);
+        }
+
+        // Values on or close to ties of the fifth decimal place
+        for (int i = -10_000; i <= 10_000; i++) {
+            assertRoundToDecimalPlaces(format, i / 64.0);
+            assertRoundToDecimalPlaces(format, i * 1e-5 + 5e-6);
+            assertRoundToDecimalPlaces(format, i / 200_000.0);
+        }
+
+        double[] edgeCases = {0, -0.0, -0.000001, 5e-6, -5e-6, 1e300, -3e20};
+        for (double value : edgeCases) {
+            assertRoundToDecimalPlaces(format, value);
+        }
+    }
+
+    private static void assertFloatToDecimalDouble(float value) {
+        double expected = Double.parseDouble(Float.toString(value));
+        Assertions.assertEquals(Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(MathUtils.floatToDecimalDouble(value)),
+                () -> "Float " + value + " converted differently");
+    }
+
+    private static void assertRoundToDecimalPlaces(DecimalFormat format, double value) {
+        double expected = Double.parseDouble(format.format(value));
+        Assertions.assertEquals(Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(MathUtils.roundToDecimalPlaces(value, 5)),
+                () -> "Double " + value + " rounded differently");
+    }
+}